@@ -14,6 +14,10 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // SpiritualSongFilter.ClassifierMode used by the app: KEYWORD or NAIVE_BAYES
+        val spiritualClassifier = (project.findProperty("spiritualClassifier") as String?) ?: "KEYWORD"
+        buildConfigField("String", "SPIRITUAL_CLASSIFIER", "\"$spiritualClassifier\"")
     }
 
     buildFeatures {
@@ -33,10 +37,17 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    // Network classes log and read SystemClock; let unit tests run them on the JVM
+    testOptions {
+        unitTests.isReturnDefaultValues = true
+    }
 }
 
 dependencies {
 
+    // Pure-Java models, filtering and Deezer JSON decoding
+    implementation(project(":core"))
+
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
@@ -49,7 +60,6 @@ dependencies {
 
     // OkHttp
     implementation(libs.okhttp)
-    implementation(libs.logging.interceptor)
 
     // Navigation Component
     implementation(libs.navigation.fragment)
@@ -58,11 +68,11 @@ dependencies {
     // Picasso for image loading
     implementation(libs.picasso)
 
-    // Glide for image loading
-    implementation(libs.glide)
     implementation(libs.swiperefreshlayout)
 
     testImplementation(libs.junit)
+    // TrendingSearchFetcherTest runs the warm-up against a local mock Deezer server
+    testImplementation(libs.mockwebserver)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
@@ -15,9 +15,15 @@ import androidx.navigation.Navigation;
 import androidx.navigation.ui.AppBarConfiguration;
 import androidx.navigation.ui.NavigationUI;
 
+import com.example.worshipsound.BuildConfig;
 import com.example.worshipsound.R;
 import com.example.worshipsound.database.SongDAO;
+import com.example.worshipsound.network.HttpClientProvider;
+import com.example.worshipsound.network.RetrofitClient;
+import com.example.worshipsound.network.TrendingWarmupJobService;
 import com.example.worshipsound.utils.MediaPlayerManager;
+import com.example.worshipsound.utils.NetworkStats;
+import com.example.worshipsound.utils.SpiritualFilterAssets;
 import com.example.worshipsound.utils.ThemeManager;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import androidx.navigation.fragment.NavHostFragment;
@@ -73,6 +79,10 @@ public class MainActivity extends AppCompatActivity {
     private void initializeUtils() {
         mediaPlayerManager = MediaPlayerManager.getInstance();
         songDAO = SongDAO.getInstance(this);
+        SpiritualFilterAssets.install(this);
+        RetrofitClient.getInstance(this);
+        HttpClientProvider.installImageLoader(this);
+        TrendingWarmupJobService.schedule(this);
     }
 
     /**
@@ -249,6 +259,11 @@ public class MainActivity extends AppCompatActivity {
             mediaPlayerManager.pausePlayback();
         }
         
+        // Request metrics, to see where time goes on slow networks
+        if (BuildConfig.DEBUG) {
+            Log.d(TAG, NetworkStats.getInstance().dump());
+        }
+        
         Log.d(TAG, "MainActivity paused");
     }
 
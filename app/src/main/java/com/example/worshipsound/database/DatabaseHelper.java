@@ -13,12 +13,13 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     
     // Database info
     private static final String DATABASE_NAME = "worship_sound.db";
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 2;
     
     // Table names
     public static final String TABLE_USERS = "users";
     public static final String TABLE_SONGS = "songs";
     public static final String TABLE_PLAYLISTS = "playlists";
+    public static final String TABLE_SPIRITUAL_SCORES = "spiritual_scores";
     
     // User table columns
     public static final String COLUMN_USER_ID = "user_id";
@@ -43,6 +44,13 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     public static final String COLUMN_PLAYLIST_NAME = "playlist_name";
     public static final String COLUMN_ADDED_AT = "added_at";
     
+    // Spiritual score cache columns (keyed by COLUMN_DEEZER_ID)
+    public static final String COLUMN_SCORE = "score";
+    public static final String COLUMN_IS_SPIRITUAL = "is_spiritual";
+    public static final String COLUMN_MATCHED_FIELDS = "matched_fields";
+    public static final String COLUMN_DICTIONARY_HASH = "dictionary_hash";
+    public static final String COLUMN_CLASSIFIED_AT = "classified_at";
+    
     // Create table statements
     private static final String CREATE_USER_TABLE = 
         "CREATE TABLE " + TABLE_USERS + " (" +
@@ -81,6 +89,16 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         "song_count INTEGER DEFAULT 0" +
         ");";
 
+    private static final String CREATE_SPIRITUAL_SCORE_TABLE = 
+        "CREATE TABLE " + TABLE_SPIRITUAL_SCORES + " (" +
+        COLUMN_DEEZER_ID + " INTEGER PRIMARY KEY, " +
+        COLUMN_SCORE + " INTEGER NOT NULL, " +
+        COLUMN_IS_SPIRITUAL + " INTEGER NOT NULL, " +
+        COLUMN_MATCHED_FIELDS + " INTEGER NOT NULL, " +
+        COLUMN_DICTIONARY_HASH + " INTEGER NOT NULL, " +
+        COLUMN_CLASSIFIED_AT + " INTEGER NOT NULL" +
+        ");";
+
     private static DatabaseHelper instance;
 
     private DatabaseHelper(Context context) {
@@ -105,6 +123,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             db.execSQL(CREATE_USER_TABLE);
             db.execSQL(CREATE_SONG_TABLE);
             db.execSQL(CREATE_PLAYLIST_TABLE);
+            db.execSQL(CREATE_SPIRITUAL_SCORE_TABLE);
             
             // Insert default playlists
             insertDefaultPlaylists(db);
@@ -119,7 +138,16 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
         Log.w(TAG, "Upgrading database from version " + oldVersion + " to " + newVersion);
         
+        // Additive migrations keep users and playlists
+        if (oldVersion >= 1 && oldVersion < newVersion) {
+            if (oldVersion < 2) {
+                db.execSQL(CREATE_SPIRITUAL_SCORE_TABLE);
+            }
+            return;
+        }
+        
         // Drop existing tables
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_SPIRITUAL_SCORES);
         db.execSQL("DROP TABLE IF EXISTS " + TABLE_PLAYLISTS);
         db.execSQL("DROP TABLE IF EXISTS " + TABLE_SONGS);
         db.execSQL("DROP TABLE IF EXISTS " + TABLE_USERS);
@@ -8,9 +8,13 @@ import android.util.Log;
 
 import com.example.worshipsound.models.Song;
 import com.example.worshipsound.models.User;
+import com.example.worshipsound.utils.SpiritualClassification;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Data Access Object for managing songs and users in SQLite database
@@ -177,6 +181,37 @@ public class SongDAO {
         return getSongsByPlaylist("Liked Songs");
     }
 
+    /**
+     * Count liked songs per artist, for ranking search results by affinity
+     * @return Liked song count keyed by lower-case artist name
+     */
+    public Map<String, Integer> getLikedArtistCounts() {
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        Map<String, Integer> counts = new HashMap<>();
+        
+        String selection = DatabaseHelper.COLUMN_PLAYLIST_NAME + " = ?";
+        String[] selectionArgs = {"Liked Songs"};
+        
+        try (Cursor cursor = db.query(
+                DatabaseHelper.TABLE_SONGS,
+                new String[]{DatabaseHelper.COLUMN_ARTIST, "COUNT(*)"},
+                selection,
+                selectionArgs,
+                DatabaseHelper.COLUMN_ARTIST, null, null
+        )) {
+            while (cursor.moveToNext()) {
+                String artist = cursor.getString(0);
+                if (artist != null) {
+                    counts.merge(artist.trim().toLowerCase(Locale.ROOT), cursor.getInt(1), Integer::sum);
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error counting liked artists", e);
+        }
+        
+        return counts;
+    }
+
     /**
      * Get songs by playlist name
      */
@@ -281,6 +316,168 @@ public class SongDAO {
         Log.d(TAG, "All songs cleared from database");
     }
 
+    // Spiritual score cache methods
+
+    /**
+     * Get persisted classifications for the given tracks.
+     * Rows computed with a different dictionary hash are ignored.
+     * @param deezerIds Track ids to look up (at most a few hundred per call)
+     * @param dictionaryHash Current SpiritualSongFilter dictionary fingerprint
+     * @return Classifications found, keyed by Deezer id
+     */
+    public Map<Long, SpiritualClassification> getSpiritualScores(List<Long> deezerIds, long dictionaryHash) {
+        Map<Long, SpiritualClassification> scores = new HashMap<>();
+        if (deezerIds == null || deezerIds.isEmpty()) {
+            return scores;
+        }
+        
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        
+        StringBuilder placeholders = new StringBuilder();
+        String[] selectionArgs = new String[deezerIds.size() + 1];
+        selectionArgs[0] = String.valueOf(dictionaryHash);
+        for (int i = 0; i < deezerIds.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ",?");
+            selectionArgs[i + 1] = String.valueOf(deezerIds.get(i));
+        }
+        String selection = DatabaseHelper.COLUMN_DICTIONARY_HASH + " = ? AND " +
+                          DatabaseHelper.COLUMN_DEEZER_ID + " IN (" + placeholders + ")";
+        
+        try (Cursor cursor = db.query(
+                DatabaseHelper.TABLE_SPIRITUAL_SCORES,
+                new String[]{
+                        DatabaseHelper.COLUMN_DEEZER_ID,
+                        DatabaseHelper.COLUMN_IS_SPIRITUAL,
+                        DatabaseHelper.COLUMN_SCORE,
+                        DatabaseHelper.COLUMN_MATCHED_FIELDS
+                },
+                selection,
+                selectionArgs,
+                null, null, null
+        )) {
+            while (cursor.moveToNext()) {
+                scores.put(cursor.getLong(0), new SpiritualClassification(
+                        cursor.getInt(1) == 1, cursor.getInt(2), cursor.getInt(3)));
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting spiritual scores", e);
+        }
+        
+        return scores;
+    }
+
+    /**
+     * Get the most recently computed persisted classifications
+     * @param dictionaryHash Current SpiritualSongFilter dictionary fingerprint
+     * @param limit Maximum number of rows to return
+     * @return Classifications found, keyed by Deezer id
+     */
+    public Map<Long, SpiritualClassification> getRecentSpiritualScores(long dictionaryHash, int limit) {
+        Map<Long, SpiritualClassification> scores = new HashMap<>();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        
+        String selection = DatabaseHelper.COLUMN_DICTIONARY_HASH + " = ?";
+        String[] selectionArgs = {String.valueOf(dictionaryHash)};
+        
+        try (Cursor cursor = db.query(
+                DatabaseHelper.TABLE_SPIRITUAL_SCORES,
+                new String[]{
+                        DatabaseHelper.COLUMN_DEEZER_ID,
+                        DatabaseHelper.COLUMN_IS_SPIRITUAL,
+                        DatabaseHelper.COLUMN_SCORE,
+                        DatabaseHelper.COLUMN_MATCHED_FIELDS
+                },
+                selection,
+                selectionArgs,
+                null, null,
+                DatabaseHelper.COLUMN_CLASSIFIED_AT + " DESC",
+                String.valueOf(limit)
+        )) {
+            while (cursor.moveToNext()) {
+                scores.put(cursor.getLong(0), new SpiritualClassification(
+                        cursor.getInt(1) == 1, cursor.getInt(2), cursor.getInt(3)));
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error getting recent spiritual scores", e);
+        }
+        
+        return scores;
+    }
+
+    /**
+     * Persist classifications of songs, tagged with the dictionary hash
+     * @param songs Songs whose memoized classification should be stored
+     * @param dictionaryHash Current SpiritualSongFilter dictionary fingerprint
+     */
+    public void saveSpiritualScores(List<Song> songs, long dictionaryHash) {
+        if (songs == null || songs.isEmpty()) {
+            return;
+        }
+        
+        Map<Long, SpiritualClassification> classifications = new HashMap<>();
+        for (Song song : songs) {
+            if (song.getSpiritualClassification() != null && song.getId() > 0) {
+                classifications.put(song.getId(), song.getSpiritualClassification());
+            }
+        }
+        saveSpiritualScores(classifications, dictionaryHash);
+    }
+
+    /**
+     * Persist classifications, tagged with the dictionary hash
+     * @param classifications Classifications keyed by Deezer id
+     * @param dictionaryHash Current SpiritualSongFilter dictionary fingerprint
+     */
+    public void saveSpiritualScores(Map<Long, SpiritualClassification> classifications, long dictionaryHash) {
+        if (classifications == null || classifications.isEmpty()) {
+            return;
+        }
+        
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        long now = System.currentTimeMillis();
+        
+        db.beginTransaction();
+        try {
+            ContentValues values = new ContentValues();
+            for (Map.Entry<Long, SpiritualClassification> entry : classifications.entrySet()) {
+                SpiritualClassification classification = entry.getValue();
+                if (classification == null || entry.getKey() <= 0) {
+                    continue;
+                }
+                values.put(DatabaseHelper.COLUMN_DEEZER_ID, entry.getKey());
+                values.put(DatabaseHelper.COLUMN_SCORE, classification.getScore());
+                values.put(DatabaseHelper.COLUMN_IS_SPIRITUAL, classification.isSpiritual() ? 1 : 0);
+                values.put(DatabaseHelper.COLUMN_MATCHED_FIELDS, classification.getMatchedFields());
+                values.put(DatabaseHelper.COLUMN_DICTIONARY_HASH, dictionaryHash);
+                values.put(DatabaseHelper.COLUMN_CLASSIFIED_AT, now);
+                db.insertWithOnConflict(DatabaseHelper.TABLE_SPIRITUAL_SCORES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+            Log.d(TAG, "Saved spiritual scores for " + classifications.size() + " songs");
+        } catch (Exception e) {
+            Log.e(TAG, "Error saving spiritual scores", e);
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Delete persisted scores computed with other dictionaries
+     * @param dictionaryHash Current SpiritualSongFilter dictionary fingerprint
+     * @return Number of rows deleted
+     */
+    public int deleteStaleSpiritualScores(long dictionaryHash) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        
+        String selection = DatabaseHelper.COLUMN_DICTIONARY_HASH + " != ?";
+        String[] selectionArgs = {String.valueOf(dictionaryHash)};
+        
+        int rowsDeleted = db.delete(DatabaseHelper.TABLE_SPIRITUAL_SCORES, selection, selectionArgs);
+        
+        Log.d(TAG, "Deleted " + rowsDeleted + " stale spiritual scores");
+        return rowsDeleted;
+    }
+
     // Helper methods
     
     private User createUserFromCursor(Cursor cursor) {
@@ -22,6 +22,7 @@ import com.example.worshipsound.adapters.SongAdapter;
 import com.example.worshipsound.database.SongDAO;
 import com.example.worshipsound.models.DeezerResponse;
 import com.example.worshipsound.models.Song;
+import com.example.worshipsound.network.RequestHandle;
 import com.example.worshipsound.network.RetrofitClient;
 import com.example.worshipsound.network.SpiritualMusicNetworkManager;
 import com.example.worshipsound.utils.MediaPlayerManager;
@@ -65,6 +66,8 @@ public class HomeFragment extends Fragment implements SongAdapter.OnSongClickLis
     // API and Network
     private RetrofitClient retrofitClient;
     private SpiritualMusicNetworkManager spiritualNetworkManager;
+    // Trending load in progress; cancelled with the view or when a newer load starts
+    private RequestHandle trendingRequest;
     private final String[] spiritualKeywords = {
         "gospel", "worship", "christian", "spiritual", "praise", 
         "hymn", "jesus", "god", "church", "prayer"
@@ -83,7 +86,7 @@ public class HomeFragment extends Fragment implements SongAdapter.OnSongClickLis
         mediaPlayerManager = MediaPlayerManager.getInstance();
         songDAO = SongDAO.getInstance(requireContext());
         retrofitClient = RetrofitClient.getInstance();
-        spiritualNetworkManager = SpiritualMusicNetworkManager.getInstance();
+        spiritualNetworkManager = SpiritualMusicNetworkManager.getInstance(requireContext());
         executorService = Executors.newSingleThreadExecutor();
         
         // Initialize data
@@ -161,13 +164,14 @@ public class HomeFragment extends Fragment implements SongAdapter.OnSongClickLis
     }
 
     /**
-     * Load trending spiritual songs from Deezer API
+     * Load trending spiritual songs from Deezer API, or from a cached or warmed result
      */
     private void loadTrendingSongs() {
+        cancelTrendingRequest();
         showLoading(true);
         hideEmptyState();
         
-        spiritualNetworkManager.getTrendingSpiritualSongs(new SpiritualMusicNetworkManager.SpiritualSearchCallback() {
+        trendingRequest = spiritualNetworkManager.getTrendingSpiritualSongs(new SpiritualMusicNetworkManager.SpiritualSearchCallback() {
             @Override
             public void onSpiritualSongsFound(List<Song> songs, int totalFound, int filtered) {
                 showLoading(false);
@@ -193,14 +197,15 @@ public class HomeFragment extends Fragment implements SongAdapter.OnSongClickLis
             public void onLoading(boolean isLoading) {
                 // Loading state is handled by the outer showLoading calls
             }
-        });
+        }).bindTo(getViewLifecycleOwner());
     }
 
     /**
-     * Refresh trending songs
+     * Refresh trending songs with a new mix of queries, fetched fresh from Deezer
      */
     private void refreshTrendingSongs() {
-        spiritualNetworkManager.getTrendingSpiritualSongs(new SpiritualMusicNetworkManager.SpiritualSearchCallback() {
+        cancelTrendingRequest();
+        trendingRequest = spiritualNetworkManager.getSpiritualMix(true, new SpiritualMusicNetworkManager.SpiritualSearchCallback() {
             @Override
             public void onSpiritualSongsFound(List<Song> songs, int totalFound, int filtered) {
                 swipeRefreshLayout.setRefreshing(false);
@@ -227,7 +232,21 @@ public class HomeFragment extends Fragment implements SongAdapter.OnSongClickLis
             public void onLoading(boolean isLoading) {
                 // Refresh loading is handled by SwipeRefreshLayout
             }
-        });
+        }).bindTo(getViewLifecycleOwner());
+    }
+    
+    /**
+     * Cancel the trending load in progress, if any
+     */
+    private void cancelTrendingRequest() {
+        if (trendingRequest != null) {
+            if (!trendingRequest.isCompleted() && !trendingRequest.isCancelled()) {
+                // Its callback will not run to hide the progress bar
+                showLoading(false);
+            }
+            trendingRequest.cancel();
+            trendingRequest = null;
+        }
     }
 
     /**
@@ -22,22 +22,15 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.worshipsound.R;
 import com.example.worshipsound.adapters.SongAdapter;
 import com.example.worshipsound.database.SongDAO;
-import com.example.worshipsound.models.DeezerResponse;
 import com.example.worshipsound.models.Song;
-import com.example.worshipsound.network.RetrofitClient;
 import com.example.worshipsound.network.SpiritualMusicNetworkManager;
 import com.example.worshipsound.utils.MediaPlayerManager;
-import com.example.worshipsound.utils.SpiritualSongFilter;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 /**
  * Fragment for searching spiritual/worship songs using Deezer API
  */
@@ -61,9 +54,9 @@ public class SearchFragment extends Fragment implements SongAdapter.OnSongClickL
     private ExecutorService executorService;
     
     // API and Network
-    private RetrofitClient retrofitClient;
+    private static final int PREFETCH_DISTANCE = SpiritualMusicNetworkManager.DEFAULT_PREFETCH_DISTANCE;
     private SpiritualMusicNetworkManager spiritualNetworkManager;
-    private Call<DeezerResponse> currentCall;
+    private SpiritualMusicNetworkManager.SearchCursor searchCursor;
     
     // Search state
     private String lastSearchQuery = "";
@@ -80,8 +73,7 @@ public class SearchFragment extends Fragment implements SongAdapter.OnSongClickL
         // Initialize utilities
         mediaPlayerManager = MediaPlayerManager.getInstance();
         songDAO = SongDAO.getInstance(requireContext());
-        retrofitClient = RetrofitClient.getInstance();
-        spiritualNetworkManager = SpiritualMusicNetworkManager.getInstance();
+        spiritualNetworkManager = SpiritualMusicNetworkManager.getInstance(requireContext());
         executorService = Executors.newSingleThreadExecutor();
         
         // Initialize data
@@ -129,9 +121,20 @@ public class SearchFragment extends Fragment implements SongAdapter.OnSongClickL
         searchAdapter = new SongAdapter(requireContext(), searchResults);
         searchAdapter.setOnSongClickListener(this);
         
-        rvSearchResults.setLayoutManager(new LinearLayoutManager(requireContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(requireContext());
+        rvSearchResults.setLayoutManager(layoutManager);
         rvSearchResults.setAdapter(searchAdapter);
         rvSearchResults.setHasFixedSize(true);
+        
+        // Let the search cursor fetch the next page before the end is reached
+        rvSearchResults.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (searchCursor != null && dy > 0) {
+                    searchCursor.onPositionVisible(layoutManager.findLastVisibleItemPosition());
+                }
+            }
+        });
     }
 
     /**
@@ -205,98 +208,94 @@ public class SearchFragment extends Fragment implements SongAdapter.OnSongClickL
      * Search for songs using Deezer API
      */
     private void searchSongs(String query) {
-        // Cancel previous search if ongoing
-        if (currentCall != null && !currentCall.isCanceled()) {
-            currentCall.cancel();
-        }
+        // Close the previous search if ongoing
+        closeSearchCursor();
         
         lastSearchQuery = query;
         showLoading(true);
         hideEmptyState();
         hideSearchHint();
         
-        // Add spiritual context to search query
-        String enhancedQuery = SpiritualSongFilter.enhanceQueryForSpiritual(query);
-        
-        currentCall = retrofitClient.getDeezerAPI().searchTracks(enhancedQuery, 50, 0);
-        
-        currentCall.enqueue(new Callback<DeezerResponse>() {
+        // Pages of filtered results; later pages are fetched as the list is scrolled
+        searchCursor = spiritualNetworkManager.openSearchCursor(query, PREFETCH_DISTANCE,
+                new SpiritualMusicNetworkManager.SearchCursorListener() {
             @Override
-            public void onResponse(@NonNull Call<DeezerResponse> call, @NonNull Response<DeezerResponse> response) {
-                if (call.isCanceled()) return;
-
-                showLoading(false);
-
-                if (response.isSuccessful() && response.body() != null) {
-                    DeezerResponse deezerResponse = response.body();
-
-                    // Check if response has data
-                    if (deezerResponse.getSongs() != null) {
-                        List<Song> allSongs = deezerResponse.getSongs();
-
-                        // Even if songs list is empty, it's still a valid response
-                        if (allSongs.isEmpty()) {
-                            showEmptyState("No songs found for \"" + query + "\". Try a different search term.");
-                            Log.w(TAG, "No songs found in API response for query: " + query);
-                            return;
-                        }
-
-                        List<Song> spiritualSongs = SpiritualSongFilter.filterSpiritualSongs(allSongs);
-
-                        if (!spiritualSongs.isEmpty()) {
-                            updateSearchResults(spiritualSongs);
-                            Log.d(TAG, "Found " + spiritualSongs.size() + " spiritual songs from " + allSongs.size() + " total for query: " + query);
-                        } else {
-                            showEmptyState("No spiritual songs found for \"" + query + "\". Try searching for gospel, worship, or christian music.");
-                            Log.w(TAG, "No spiritual songs found for query: " + query);
-                        }
-                    } else {
-                        handleSearchError("Failed to search songs");
-                        Log.e(TAG, "Search API response missing data field: " + response.code());
-                    }
-                } else {
-                    handleSearchError("Failed to search songs");
-                    Log.e(TAG, "Search API request failed: " + response.code());
+            public void onSongsAppended(List<Song> songs) {
+                boolean firstPage = searchResults.isEmpty();
+                if (firstPage) {
+                    showLoading(false);
                 }
+                appendSearchResults(songs, firstPage);
+                Log.d(TAG, "Loaded " + songs.size() + " spiritual songs for query: " + query);
             }
 
             @Override
-            public void onFailure(@NonNull Call<DeezerResponse> call, @NonNull Throwable t) {
-                if (call.isCanceled()) return;
-                
+            public void onSongsDropped(int count) {
+                // The cursor keeps a bounded window; drop the oldest rows with it
+                searchResults.subList(0, count).clear();
+                searchAdapter.notifyItemRangeRemoved(0, count);
+            }
+
+            @Override
+            public void onNoSpiritualSongsFound(String message) {
                 showLoading(false);
-                handleSearchError("Network error: " + t.getMessage());
-                Log.e(TAG, "Search network request failed", t);
+                showEmptyState(message);
+                Log.w(TAG, "No spiritual songs found for query: " + query);
+            }
+
+            @Override
+            public void onError(String error) {
+                if (searchResults.isEmpty()) {
+                    showLoading(false);
+                    handleSearchError(error);
+                } else {
+                    Toast.makeText(requireContext(), error, Toast.LENGTH_SHORT).show();
+                }
+                Log.e(TAG, "Search failed: " + error);
             }
         });
         
-        Log.d(TAG, "Searching for: " + enhancedQuery);
+        Log.d(TAG, "Searching for: " + query);
     }
 
     /**
-     * Update search results
+     * Close the search cursor, cancelling a page in flight
      */
-    private void updateSearchResults(List<Song> songs) {
-        if (songs != null && !songs.isEmpty()) {
-            searchResults.clear();
-            searchResults.addAll(songs);
+    private void closeSearchCursor() {
+        if (searchCursor != null) {
+            searchCursor.close();
+            searchCursor = null;
+        }
+        searchResults.clear();
+        if (searchAdapter != null) {
             searchAdapter.notifyDataSetChanged();
-            hideEmptyState();
-            hideSearchHint();
-            
-            // Check which songs are already liked
-            executorService.execute(() -> {
-                for (Song song : searchResults) {
-                    boolean isLiked = songDAO.isSongLiked(song.getId());
-                    song.setLiked(isLiked);
-                }
-                
-                requireActivity().runOnUiThread(() -> searchAdapter.notifyDataSetChanged());
-            });
+        }
+    }
+
+    /**
+     * Add a page of search results
+     * @param firstPage true to announce the result count
+     */
+    private void appendSearchResults(List<Song> songs, boolean firstPage) {
+        int start = searchResults.size();
+        searchResults.addAll(songs);
+        searchAdapter.notifyItemRangeInserted(start, songs.size());
+        hideEmptyState();
+        hideSearchHint();
+        
+        // Check which songs are already liked
+        List<Song> page = new ArrayList<>(songs);
+        executorService.execute(() -> {
+            for (Song song : page) {
+                boolean isLiked = songDAO.isSongLiked(song.getId());
+                song.setLiked(isLiked);
+            }
             
+            requireActivity().runOnUiThread(() -> searchAdapter.notifyDataSetChanged());
+        });
+        
+        if (firstPage) {
             Toast.makeText(requireContext(), "Found " + songs.size() + " songs", Toast.LENGTH_SHORT).show();
-        } else {
-            showEmptyState("No songs found");
         }
     }
 
@@ -437,8 +436,9 @@ public class SearchFragment extends Fragment implements SongAdapter.OnSongClickL
         super.onDestroyView();
         
         // Cancel ongoing search
-        if (currentCall != null && !currentCall.isCanceled()) {
-            currentCall.cancel();
+        if (searchCursor != null) {
+            searchCursor.close();
+            searchCursor = null;
         }
         
         Log.d(TAG, "SearchFragment view destroyed");
@@ -0,0 +1,178 @@
+package com.example.worshipsound.network;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.GzipSource;
+import okio.Okio;
+
+/**
+ * OkHttp interceptors that make Deezer search responses cacheable and serve
+ * them from the disk cache when the network is unavailable
+ */
+public final class CachePolicyInterceptors {
+    private static final String TAG = "CachePolicy";
+
+    // How long a search response is fresh, and how long it may be served stale when offline
+    public static final int SEARCH_MAX_AGE_SECONDS = 5 * 60;
+    public static final int SEARCH_STALE_IF_ERROR_SECONDS = 7 * 24 * 60 * 60;
+
+    private static final String SEARCH_PATH = "/search";
+    // Enough of the body to see whether its first key is "error"
+    private static final long ERROR_PEEK_BYTES = 64;
+
+    private CachePolicyInterceptors() {}
+
+    /**
+     * Network interceptor: replace Deezer's caching headers on successful /search
+     * responses with our own max-age and stale-if-error. Deezer's HTTP 200
+     * error payloads are marked no-store instead.
+     */
+    public static Interceptor searchCacheHeaders() {
+        return chain -> {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+            if (!isSearch(request) || !response.isSuccessful()) {
+                return response;
+            }
+            if (isErrorPayload(response)) {
+                // Quota and rate-limit errors come back as HTTP 200; never cache or replay them
+                return response.newBuilder()
+                        .removeHeader("Pragma")
+                        .removeHeader("Expires")
+                        .header("Cache-Control", "no-store")
+                        .build();
+            }
+            return response.newBuilder()
+                    .removeHeader("Pragma")
+                    .removeHeader("Expires")
+                    .header("Cache-Control", "public, max-age=" + SEARCH_MAX_AGE_SECONDS
+                            + ", stale-if-error=" + SEARCH_STALE_IF_ERROR_SECONDS)
+                    .build();
+        };
+    }
+
+    /**
+     * Application interceptor for offline mode. OkHttp does not implement
+     * stale-if-error itself, so: when offline, /search is answered only from the
+     * cache (stale up to SEARCH_STALE_IF_ERROR_SECONDS); when a request fails
+     * with an I/O error or a server error, a stale cached copy is used if present.
+     * @param monitor Connectivity source
+     */
+    public static Interceptor offlineFallback(ConnectivityMonitor monitor) {
+        return chain -> {
+            Request request = chain.request();
+            if (!isSearch(request)) {
+                return chain.proceed(request);
+            }
+
+            if (!monitor.isOnline()) {
+                Log.d(TAG, "Offline, serving from cache: " + request.url());
+                return chain.proceed(staleRequest(request));
+            }
+
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                Response stale = proceedStale(chain, request);
+                if (stale != null) {
+                    Log.w(TAG, "Network failed, serving stale cache: " + request.url(), e);
+                    return stale;
+                }
+                throw e;
+            }
+
+            if (response.code() >= 500) {
+                Response stale = proceedStale(chain, request);
+                if (stale != null) {
+                    Log.w(TAG, "Server error " + response.code() + ", serving stale cache: " + request.url());
+                    response.close();
+                    return stale;
+                }
+            }
+            return response;
+        };
+    }
+
+    /**
+     * Probe for DeezerRequestMerger: a /search request is answered without the
+     * network when offline (offlineFallback then serves it from the cache or
+     * fails it) or when the disk cache holds a fresh copy. Reads the cache index.
+     * @param client Client sharing the disk cache, without our interceptors
+     * @param monitor Connectivity source
+     */
+    public static DeezerRequestMerger.CacheProbe cacheProbe(OkHttpClient client, ConnectivityMonitor monitor) {
+        CacheControl cachedOnly = new CacheControl.Builder().onlyIfCached().build();
+        return request -> {
+            if (!isSearch(request)) {
+                return false;
+            }
+            if (!monitor.isOnline()) {
+                return true;
+            }
+            Request probe = request.newBuilder().cacheControl(cachedOnly).build();
+            // A fresh cached copy comes back as is; anything else is 504 Unsatisfiable Request
+            try (Response response = client.newCall(probe).execute()) {
+                return response.cacheResponse() != null;
+            } catch (IOException e) {
+                return false;
+            }
+        };
+    }
+
+    private static Response proceedStale(Interceptor.Chain chain, Request request) throws IOException {
+        Response stale = chain.proceed(staleRequest(request));
+        if (stale.isSuccessful()) {
+            return stale;
+        }
+        // 504 Unsatisfiable Request: nothing cached
+        stale.close();
+        return null;
+    }
+
+    private static Request staleRequest(Request request) {
+        return request.newBuilder()
+                .cacheControl(new CacheControl.Builder()
+                        .onlyIfCached()
+                        .maxStale(SEARCH_STALE_IF_ERROR_SECONDS, TimeUnit.SECONDS)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Check for Deezer's {"error":...} body by peeking at its first bytes;
+     * the body itself is left unread for the converter. Network interceptors
+     * see the body before OkHttp's transparent gzip, so decompress the peek.
+     */
+    private static boolean isErrorPayload(Response response) {
+        BufferedSource source = response.body().source().peek();
+        if ("gzip".equalsIgnoreCase(response.header("Content-Encoding"))) {
+            source = Okio.buffer(new GzipSource(source));
+        }
+        Buffer head = new Buffer();
+        try {
+            while (head.size() < ERROR_PEEK_BYTES && source.read(head, ERROR_PEEK_BYTES - head.size()) != -1) {
+                // Keep reading until the prefix is complete or the body ends
+            }
+        } catch (IOException e) {
+            // Let the converter report a broken body
+            return false;
+        }
+        String text = head.readUtf8().trim();
+        return text.startsWith("{") && text.substring(1).trim().startsWith("\"error\"");
+    }
+
+    private static boolean isSearch(Request request) {
+        return request.url().encodedPath().startsWith(SEARCH_PATH);
+    }
+}
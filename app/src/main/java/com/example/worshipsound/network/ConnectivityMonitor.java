@@ -0,0 +1,35 @@
+package com.example.worshipsound.network;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+
+/**
+ * Reports whether the device currently has a usable internet connection
+ */
+public class ConnectivityMonitor {
+    private final ConnectivityManager connectivityManager;
+
+    public ConnectivityMonitor(Context context) {
+        connectivityManager = (ConnectivityManager) context.getApplicationContext()
+                .getSystemService(Context.CONNECTIVITY_SERVICE);
+    }
+
+    /**
+     * Check for an active network with internet capability
+     * @return true if requests can be expected to reach the network
+     */
+    public boolean isOnline() {
+        NetworkCapabilities capabilities = getActiveCapabilities();
+        return capabilities != null && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+    }
+
+    private NetworkCapabilities getActiveCapabilities() {
+        if (connectivityManager == null) {
+            return null;
+        }
+        Network network = connectivityManager.getActiveNetwork();
+        return network != null ? connectivityManager.getNetworkCapabilities(network) : null;
+    }
+}
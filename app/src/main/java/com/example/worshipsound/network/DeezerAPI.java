@@ -1,9 +1,11 @@
 package com.example.worshipsound.network;
 
 import com.example.worshipsound.models.DeezerResponse;
+import com.example.worshipsound.utils.RateLimiter;
 import retrofit2.Call;
 import retrofit2.http.GET;
 import retrofit2.http.Query;
+import retrofit2.http.Tag;
 
 /**
  * Retrofit interface for Deezer API endpoints
@@ -24,6 +26,40 @@ public interface DeezerAPI {
             @Query("index") int index
     );
 
+    /**
+     * Search for tracks, queued for a rate limit permit by priority
+     * @param query Search query
+     * @param limit Number of results to return (max: 100)
+     * @param index Starting index for pagination
+     * @param priority Rate limiter priority of the request
+     * @return Call object containing DeezerResponse
+     */
+    @GET("search")
+    Call<DeezerResponse> searchTracks(
+            @Query("q") String query,
+            @Query("limit") int limit,
+            @Query("index") int index,
+            @Tag RateLimiter.Priority priority
+    );
+
+    /**
+     * Search for spiritual tracks: non-spiritual tracks are dropped while the
+     * response is decoded (DeezerResponse.isPrefiltered() is true)
+     * @param query Search query
+     * @param limit Number of results to request (max: 100)
+     * @param index Starting index for pagination
+     * @param priority Rate limiter priority of the request
+     * @return Call object containing the spiritual tracks of the page
+     */
+    @GET("search")
+    @SpiritualOnly
+    Call<DeezerResponse> searchSpiritualTracks(
+            @Query("q") String query,
+            @Query("limit") int limit,
+            @Query("index") int index,
+            @Tag RateLimiter.Priority priority
+    );
+
     /**
      * Search for tracks with default pagination
      * @param query Search query
@@ -0,0 +1,464 @@
+package com.example.worshipsound.network;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.worshipsound.models.DeezerResponse;
+import com.example.worshipsound.utils.RateLimiter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * DeezerAPI in front of the Retrofit service that merges identical requests
+ * in flight: while a call for a URL is running, further enqueued calls for
+ * the same URL wait for it instead of starting their own, and the parsed
+ * response is delivered to every callback. Synchronous execute() is not merged.
+ *
+ * Every call takes a RateLimiter permit before it is handed to OkHttp, with the
+ * priority of its RateLimiter.Priority tag (DeezerAPI's @Tag parameter; untagged
+ * calls count as interactive). Calls that find the bucket empty wait on a small
+ * pool of permit threads, most urgent first, so they never hold a dispatcher
+ * slot that an interactive call needs. The wait counts against the call's
+ * deadline and ends when it is cancelled. A merged call raises the priority of
+ * the call it joined if it is more urgent.
+ *
+ * Only network traffic counts against the rate: a call answered from the disk
+ * cache gives its permit back, and a call that would have to wait first asks
+ * the CacheProbe whether it can be answered without the network at all.
+ */
+public class DeezerRequestMerger implements DeezerAPI {
+    private static final String TAG = "DeezerRequestMerger";
+
+    // Threads waiting for permits at once; more waiters would only queue in the RateLimiter
+    private static final int PERMIT_THREADS = 4;
+    private static final long PERMIT_THREAD_KEEP_ALIVE_SECONDS = 30;
+
+    /**
+     * Tells whether a request would be answered without the network, e.g. from a
+     * fresh disk cache entry or because the device is offline. Called off the
+     * main thread.
+     */
+    public interface CacheProbe {
+        boolean answersWithoutNetwork(Request request);
+    }
+
+    private final DeezerAPI delegate;
+    private final RateLimiter rateLimiter;
+    private final Executor callbackExecutor;
+    private final CacheProbe cacheProbe;
+    private final Map<String, InFlight> inFlight = new HashMap<>();
+    // Calls waiting for a permit thread, in arrival order
+    private final List<InFlight> awaitingPermit = new ArrayList<>();
+
+    // Threads that wait for a permit; only busy while the bucket is empty. Each task
+    // serves the most urgent call in awaitingPermit, so the queue order does not matter.
+    private final ThreadPoolExecutor permitWaiters = new ThreadPoolExecutor(
+            PERMIT_THREADS, PERMIT_THREADS, PERMIT_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, TAG);
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * @param delegate Retrofit service
+     * @param rateLimiter Limiter every call takes a permit from
+     * @param callbackExecutor Executor Retrofit delivers callbacks on; used for
+     *                         failures reported before a call reaches Retrofit
+     * @param cacheProbe Consulted before a call waits for a permit, or null to always wait
+     */
+    public DeezerRequestMerger(DeezerAPI delegate, RateLimiter rateLimiter, Executor callbackExecutor,
+                               CacheProbe cacheProbe) {
+        this.delegate = delegate;
+        this.rateLimiter = rateLimiter;
+        this.callbackExecutor = callbackExecutor;
+        this.cacheProbe = cacheProbe;
+        permitWaiters.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public Call<DeezerResponse> searchTracks(String query, int limit, int index) {
+        return new MergedCall(delegate.searchTracks(query, limit, index));
+    }
+
+    @Override
+    public Call<DeezerResponse> searchTracks(String query, int limit, int index, RateLimiter.Priority priority) {
+        return new MergedCall(delegate.searchTracks(query, limit, index, priority));
+    }
+
+    @Override
+    public Call<DeezerResponse> searchSpiritualTracks(String query, int limit, int index,
+                                                      RateLimiter.Priority priority) {
+        return new MergedCall(delegate.searchSpiritualTracks(query, limit, index, priority), true);
+    }
+
+    @Override
+    public Call<DeezerResponse> searchTracks(String query) {
+        return new MergedCall(delegate.searchTracks(query));
+    }
+
+    @Override
+    public Call<DeezerResponse> searchByGenre(String query, String genre, int limit) {
+        return new MergedCall(delegate.searchByGenre(query, genre, limit));
+    }
+
+    @Override
+    public Call<DeezerResponse> searchWorshipMusic(String query, int limit, int index) {
+        return new MergedCall(delegate.searchWorshipMusic(query, limit, index));
+    }
+
+    @Override
+    public Call<DeezerResponse> searchChristianMusic(String query, int limit) {
+        return new MergedCall(delegate.searchChristianMusic(query, limit));
+    }
+
+    @Override
+    public Call<DeezerResponse> searchByWorshipArtist(String artistType, int limit) {
+        return new MergedCall(delegate.searchByWorshipArtist(artistType, limit));
+    }
+
+    /**
+     * Get the number of distinct requests currently on the network
+     */
+    public int getInFlightCount() {
+        synchronized (inFlight) {
+            return inFlight.size();
+        }
+    }
+
+    /**
+     * Get when a call was handed to OkHttp, after any wait for a rate limit permit.
+     * A call that joined another reports the time that call was sent.
+     * @return SystemClock.elapsedRealtime() at that moment, or -1 if the call
+     *         has not been sent or did not come from a DeezerRequestMerger
+     */
+    public static long getSentAt(Call<?> call) {
+        return call instanceof DeezerRequestMerger.MergedCall
+                ? ((DeezerRequestMerger.MergedCall) call).getSentAt() : -1;
+    }
+
+    /**
+     * Hand a new network call to OkHttp once it has a permit. With a permit
+     * free and nobody queued it is sent at once; otherwise it waits off the
+     * dispatcher.
+     */
+    private void start(InFlight entry) {
+        if (rateLimiter.tryAcquire()) {
+            entry.permitHeld = true;
+            entry.send();
+            return;
+        }
+        synchronized (awaitingPermit) {
+            awaitingPermit.add(entry);
+        }
+        permitWaiters.execute(this::serveMostUrgent);
+    }
+
+    /**
+     * Wait for a permit for the most urgent call in awaitingPermit, then send it.
+     * A call the cache can answer is sent without a permit.
+     */
+    private void serveMostUrgent() {
+        InFlight entry = pollMostUrgent();
+        // A cancelled call receives no callback
+        if (entry == null || entry.call.isCanceled()) {
+            return;
+        }
+        if (answersWithoutNetwork(entry.call)) {
+            entry.send();
+            return;
+        }
+        try {
+            awaitPermit(entry.call, () -> entry.priority, entry.queuedAt);
+        } catch (IOException e) {
+            if (!entry.call.isCanceled()) {
+                callbackExecutor.execute(() -> entry.onFailure(entry.call, e));
+            }
+            return;
+        }
+        entry.permitHeld = true;
+        entry.send();
+    }
+
+    /**
+     * Take the most urgent call out of awaitingPermit; the earliest among equals
+     * @return Call to serve, or null if none is waiting
+     */
+    private InFlight pollMostUrgent() {
+        synchronized (awaitingPermit) {
+            if (awaitingPermit.isEmpty()) {
+                return null;
+            }
+            InFlight mostUrgent = awaitingPermit.get(0);
+            for (InFlight candidate : awaitingPermit) {
+                if (candidate.priority.compareTo(mostUrgent.priority) < 0) {
+                    mostUrgent = candidate;
+                }
+            }
+            awaitingPermit.remove(mostUrgent);
+            return mostUrgent;
+        }
+    }
+
+    private boolean answersWithoutNetwork(Call<DeezerResponse> call) {
+        return cacheProbe != null && cacheProbe.answersWithoutNetwork(call.request());
+    }
+
+    /**
+     * Wait for a permit for a call about to be sent. The time since waitStarted
+     * (System.nanoTime()) is taken off the call's deadline.
+     * @param priority Priority of the call, read again while waiting
+     * @throws InterruptedIOException if the deadline passed or the call was cancelled first
+     */
+    private void awaitPermit(Call<DeezerResponse> call, Supplier<RateLimiter.Priority> priority,
+                             long waitStarted) throws IOException {
+        Request request = call.request();
+        long timeoutNanos = call.timeout().timeoutNanos();
+        long remaining = timeoutNanos - (System.nanoTime() - waitStarted);
+        if (timeoutNanos > 0 && remaining <= 0) {
+            throw new InterruptedIOException("No request permit within the deadline: " + request.url().encodedPath());
+        }
+        boolean acquired;
+        try {
+            acquired = rateLimiter.acquire(priority,
+                    timeoutNanos > 0 ? Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)) : 0,
+                    call::isCanceled);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a request permit");
+        }
+        if (!acquired) {
+            throw new InterruptedIOException(call.isCanceled()
+                    ? "Canceled"
+                    : "No request permit within the deadline: " + request.url().encodedPath());
+        }
+        if (timeoutNanos > 0) {
+            remaining = timeoutNanos - (System.nanoTime() - waitStarted);
+            call.timeout().timeout(Math.max(1, remaining), TimeUnit.NANOSECONDS);
+        }
+        if (rateLimiter.getQueueLength() > 0) {
+            Log.d(TAG, priority.get() + " request sent, " + rateLimiter.getQueueLength() + " waiting");
+        }
+    }
+
+    /**
+     * Give the permit back if the response did not come from the network
+     */
+    private void releaseIfLocal(Response<?> response) {
+        if (response.raw().networkResponse() == null) {
+            rateLimiter.release();
+        }
+    }
+
+    private static RateLimiter.Priority priorityOf(Request request) {
+        RateLimiter.Priority priority = request.tag(RateLimiter.Priority.class);
+        return priority != null ? priority : RateLimiter.Priority.INTERACTIVE;
+    }
+
+    /**
+     * One network call and the merged calls waiting for it
+     */
+    private final class InFlight implements Callback<DeezerResponse> {
+        private final String key;
+        private final Call<DeezerResponse> call;
+        private final List<MergedCall> waiters = new ArrayList<>();
+        private final long queuedAt = System.nanoTime();
+        // Most urgent priority of the callers waiting; raised under the inFlight lock
+        private volatile RateLimiter.Priority priority;
+        private volatile boolean permitHeld = false;
+        private volatile long sentAt = -1;
+
+        InFlight(String key, Call<DeezerResponse> call) {
+            this.key = key;
+            this.call = call;
+            this.priority = priorityOf(call.request());
+        }
+
+        void send() {
+            sentAt = SystemClock.elapsedRealtime();
+            call.enqueue(this);
+        }
+
+        void raise(RateLimiter.Priority other) {
+            if (other.compareTo(priority) < 0) {
+                priority = other;
+            }
+        }
+
+        @Override
+        public void onResponse(Call<DeezerResponse> networkCall, Response<DeezerResponse> response) {
+            if (permitHeld) {
+                releaseIfLocal(response);
+            }
+            for (MergedCall waiter : finish()) {
+                waiter.callback.onResponse(waiter, response);
+            }
+        }
+
+        @Override
+        public void onFailure(Call<DeezerResponse> networkCall, Throwable t) {
+            for (MergedCall waiter : finish()) {
+                waiter.callback.onFailure(waiter, t);
+            }
+        }
+
+        private List<MergedCall> finish() {
+            synchronized (inFlight) {
+                if (inFlight.get(key) == this) {
+                    inFlight.remove(key);
+                }
+                List<MergedCall> done = new ArrayList<>(waiters);
+                waiters.clear();
+                return done;
+            }
+        }
+    }
+
+    /**
+     * Call handed to callers; enqueue() joins an identical call in flight if there is one
+     */
+    private final class MergedCall implements Call<DeezerResponse> {
+        private final Call<DeezerResponse> call;
+        private final boolean spiritualOnly;
+        private Callback<DeezerResponse> callback;
+        private InFlight joined;
+        // Send time of a synchronous execute()
+        private volatile long executedAt = -1;
+        private volatile boolean executed = false;
+        private volatile boolean canceled = false;
+
+        MergedCall(Call<DeezerResponse> call) {
+            this(call, false);
+        }
+
+        /**
+         * @param spiritualOnly Whether the call decodes spiritual tracks only; such a
+         *                      call never shares a response with a plain one for the same URL
+         */
+        MergedCall(Call<DeezerResponse> call, boolean spiritualOnly) {
+            this.call = call;
+            this.spiritualOnly = spiritualOnly;
+        }
+
+        @Override
+        public Response<DeezerResponse> execute() throws IOException {
+            markExecuted();
+            if (answersWithoutNetwork(call)) {
+                executedAt = SystemClock.elapsedRealtime();
+                return call.execute();
+            }
+            RateLimiter.Priority priority = priorityOf(call.request());
+            awaitPermit(call, () -> priority, System.nanoTime());
+            executedAt = SystemClock.elapsedRealtime();
+            Response<DeezerResponse> response = call.execute();
+            releaseIfLocal(response);
+            return response;
+        }
+
+        @Override
+        public void enqueue(Callback<DeezerResponse> callback) {
+            markExecuted();
+            this.callback = callback;
+            Request request = call.request();
+            String key = request.method() + " " + request.url() + (spiritualOnly ? " spiritual" : "");
+
+            InFlight entry;
+            boolean start = false;
+            synchronized (inFlight) {
+                entry = inFlight.get(key);
+                if (entry == null) {
+                    entry = new InFlight(key, call);
+                    inFlight.put(key, entry);
+                    start = true;
+                }
+                entry.waiters.add(this);
+                entry.raise(priorityOf(request));
+                joined = entry;
+            }
+
+            if (start) {
+                start(entry);
+            } else {
+                Log.d(TAG, "Merged into in-flight request: " + request.url());
+            }
+        }
+
+        /**
+         * Detach from the shared call; the network call is cancelled once nobody waits for it.
+         * A cancelled call receives no callback.
+         */
+        @Override
+        public void cancel() {
+            canceled = true;
+            InFlight entry = joined;
+            if (entry == null) {
+                call.cancel();
+                return;
+            }
+            boolean cancelNetwork;
+            synchronized (inFlight) {
+                entry.waiters.remove(this);
+                cancelNetwork = entry.waiters.isEmpty() && inFlight.get(entry.key) == entry;
+                if (cancelNetwork) {
+                    inFlight.remove(entry.key);
+                }
+            }
+            if (cancelNetwork) {
+                entry.call.cancel();
+            }
+        }
+
+        long getSentAt() {
+            InFlight entry = joined;
+            return entry != null ? entry.sentAt : executedAt;
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Call<DeezerResponse> clone() {
+            return new MergedCall(call.clone(), spiritualOnly);
+        }
+
+        @Override
+        public Request request() {
+            return call.request();
+        }
+
+        @Override
+        public Timeout timeout() {
+            return call.timeout();
+        }
+
+        private synchronized void markExecuted() {
+            if (executed) {
+                throw new IllegalStateException("Already executed.");
+            }
+            executed = true;
+        }
+    }
+}
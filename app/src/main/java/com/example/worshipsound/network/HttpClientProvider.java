@@ -0,0 +1,156 @@
+package com.example.worshipsound.network;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.squareup.picasso.OkHttp3Downloader;
+import com.squareup.picasso.Picasso;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Process-wide HTTP stack shared by the Deezer API and cover-art loading.
+ * Both lanes use one connection pool (HTTP/2 where the server supports it)
+ * and one disk cache, but each has its own dispatcher, so a screen full of
+ * cover downloads queues behind the image limits and never takes the
+ * request slots API calls need.
+ */
+public final class HttpClientProvider {
+    private static final String TAG = "HttpClientProvider";
+    private static final String CACHE_DIR = "http_cache";
+    private static final long CACHE_SIZE_BYTES = 50L * 1024 * 1024;
+
+    // Connection pool shared by both lanes
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    // Per-attempt timeouts, and the default deadline of a whole call including retries;
+    // SpiritualMusicNetworkManager sets shorter deadlines per call type
+    private static final int CONNECT_TIMEOUT_SECONDS = 10;
+    private static final int READ_WRITE_TIMEOUT_SECONDS = 15;
+    private static final int CALL_TIMEOUT_SECONDS = 30;
+
+    // API lane: interactive calls, generous limits
+    private static final int API_MAX_REQUESTS = 16;
+    private static final int API_MAX_REQUESTS_PER_HOST = 8;
+
+    // Image lane: bounded so cover art cannot crowd out the API
+    private static final int IMAGE_MAX_REQUESTS = 6;
+    private static final int IMAGE_MAX_REQUESTS_PER_HOST = 4;
+
+    private static HttpClientProvider instance;
+    private static boolean imageLoaderInstalled = false;
+
+    private final Cache cache;
+    private final OkHttpClient apiClient;
+    private final OkHttpClient imageClient;
+
+    /**
+     * @param context Application context enabling the disk cache, or null
+     */
+    private HttpClientProvider(Context context) {
+        cache = context != null
+                ? new Cache(new File(context.getCacheDir(), CACHE_DIR), CACHE_SIZE_BYTES)
+                : null;
+
+        OkHttpClient.Builder shared = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(READ_WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .writeTimeout(READ_WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .callTimeout(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        if (cache != null) {
+            shared.cache(cache);
+        }
+        OkHttpClient base = shared.build();
+
+        Dispatcher apiDispatcher = new Dispatcher();
+        apiDispatcher.setMaxRequests(API_MAX_REQUESTS);
+        apiDispatcher.setMaxRequestsPerHost(API_MAX_REQUESTS_PER_HOST);
+        apiClient = base.newBuilder().dispatcher(apiDispatcher).build();
+
+        Dispatcher imageDispatcher = new Dispatcher();
+        imageDispatcher.setMaxRequests(IMAGE_MAX_REQUESTS);
+        imageDispatcher.setMaxRequestsPerHost(IMAGE_MAX_REQUESTS_PER_HOST);
+        imageClient = base.newBuilder().dispatcher(imageDispatcher).build();
+
+        Log.d(TAG, "HTTP stack initialized" + (cache != null ? " (disk cache)" : ""));
+    }
+
+    /**
+     * Get the shared HTTP stack.
+     * Without a prior getInstance(Context) call it has no disk cache.
+     */
+    public static synchronized HttpClientProvider getInstance() {
+        if (instance == null) {
+            instance = new HttpClientProvider(null);
+        }
+        return instance;
+    }
+
+    /**
+     * Get the shared HTTP stack with its disk cache
+     * @param context Any context; the application context is kept
+     */
+    public static synchronized HttpClientProvider getInstance(Context context) {
+        if (instance == null) {
+            instance = new HttpClientProvider(context.getApplicationContext());
+        } else if (instance.cache == null) {
+            Log.w(TAG, "HTTP stack was created before a context was available; disk cache disabled");
+        }
+        return instance;
+    }
+
+    /**
+     * Make Picasso load images through the image lane instead of its own HTTP
+     * stack. Must run before the first Picasso.get(); later calls are ignored.
+     * @param context Any context
+     */
+    public static synchronized void installImageLoader(Context context) {
+        if (imageLoaderInstalled) {
+            return;
+        }
+        imageLoaderInstalled = true;
+        Context appContext = context.getApplicationContext();
+        try {
+            Picasso.setSingletonInstance(new Picasso.Builder(appContext)
+                    .downloader(new OkHttp3Downloader(getInstance(appContext).imageClient))
+                    .build());
+        } catch (IllegalStateException e) {
+            // Picasso was already used with its default downloader
+            Log.w(TAG, "Picasso already initialized; images use its own HTTP stack", e);
+        }
+    }
+
+    /**
+     * Get the client for Deezer API calls; derive per-use clients with newBuilder()
+     * so they keep sharing its dispatcher, pool and cache
+     */
+    public OkHttpClient getApiClient() {
+        return apiClient;
+    }
+
+    /**
+     * Get the client for cover-art downloads
+     */
+    public OkHttpClient getImageClient() {
+        return imageClient;
+    }
+
+    /**
+     * Get the shared disk cache
+     * @return Cache, or null if the stack was created without a context
+     */
+    public Cache getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.worshipsound.network;
+
+import com.example.worshipsound.utils.NetworkStats;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * OkHttp interceptors feeding NetworkStats. The application interceptor
+ * times each call and classifies its outcome (network, cache hit,
+ * revalidated); the network interceptor counts wire bytes and network
+ * attempts, so attempts beyond the first are reported as retries.
+ * Both must be installed on the same client.
+ */
+public final class MetricsInterceptors {
+
+    private MetricsInterceptors() {}
+
+    /**
+     * Network attempts made for one call, carried as a request tag
+     */
+    private static final class Attempts {
+        final AtomicInteger count = new AtomicInteger();
+    }
+
+    /**
+     * Application interceptor: latency until the response headers, status,
+     * cache usage and retries per call. Add it before any other application
+     * interceptor so it sees the final outcome.
+     */
+    public static Interceptor application(NetworkStats stats) {
+        return chain -> {
+            Attempts attempts = new Attempts();
+            Request request = chain.request().newBuilder()
+                    .tag(Attempts.class, attempts)
+                    .build();
+            NetworkStats.Endpoint endpoint = stats.endpoint(
+                    NetworkStats.endpointName(request.method(), request.url().encodedPath()));
+
+            long startedAt = System.nanoTime();
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                endpoint.recordFailure(elapsedMillis(startedAt));
+                endpoint.recordRetries(attempts.count.get() - 1);
+                throw e;
+            }
+
+            boolean cacheHit = response.cacheResponse() != null && response.networkResponse() == null;
+            boolean revalidated = response.cacheResponse() != null && response.networkResponse() != null;
+            endpoint.recordResponse(elapsedMillis(startedAt), response.code(), cacheHit, revalidated);
+            endpoint.recordRetries(attempts.count.get() - 1);
+            return response;
+        };
+    }
+
+    /**
+     * Network interceptor: bytes sent and received on the wire (before gzip
+     * decoding) and one attempt per network round trip
+     */
+    public static Interceptor network(NetworkStats stats) {
+        return chain -> {
+            Request request = chain.request();
+            Attempts attempts = request.tag(Attempts.class);
+            if (attempts != null) {
+                attempts.count.incrementAndGet();
+            }
+            NetworkStats.Endpoint endpoint = stats.endpoint(
+                    NetworkStats.endpointName(request.method(), request.url().encodedPath()));
+
+            long bytesOut = request.headers().byteCount();
+            if (request.body() != null) {
+                bytesOut += Math.max(0, request.body().contentLength());
+            }
+            endpoint.addBytesOut(bytesOut);
+
+            Response response = chain.proceed(request);
+            endpoint.addBytesIn(response.headers().byteCount());
+
+            ResponseBody body = response.body();
+            if (body == null) {
+                return response;
+            }
+            ForwardingSource counting = new ForwardingSource(body.source()) {
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    if (read > 0) {
+                        endpoint.addBytesIn(read);
+                    }
+                    return read;
+                }
+            };
+            return response.newBuilder()
+                    .body(ResponseBody.create(Okio.buffer(counting), body.contentType(), body.contentLength()))
+                    .build();
+        };
+    }
+
+    private static long elapsedMillis(long startedAt) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.worshipsound.network;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.example.worshipsound.models.Song;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import retrofit2.Call;
+
+/**
+ * Handle of a SpiritualMusicNetworkManager request, covering every call the
+ * request makes (primary query, fallbacks, hedges; retries run inside those
+ * calls). cancel() cancels the calls in flight, keeps the request from
+ * starting new ones and silences its callback. Bound to a LifecycleOwner the
+ * request is cancelled when the owner is destroyed, so callbacks never reach
+ * a fragment whose view is gone.
+ */
+public class RequestHandle implements DefaultLifecycleObserver {
+    private final Handler mainHandler;
+    private final List<Call<?>> calls = new ArrayList<>();
+    private final List<Runnable> cancelActions = new ArrayList<>();
+    private volatile boolean cancelled = false;
+    private volatile boolean completed = false;
+    private LifecycleOwner owner;
+
+    RequestHandle(Handler mainHandler) {
+        this.mainHandler = mainHandler;
+    }
+
+    /**
+     * Cancel the request when the owner is destroyed; for a fragment pass
+     * getViewLifecycleOwner(). Call on the main thread.
+     * @return This handle
+     */
+    public RequestHandle bindTo(LifecycleOwner lifecycleOwner) {
+        if (cancelled || completed) {
+            return this;
+        }
+        if (lifecycleOwner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            cancel();
+            return this;
+        }
+        unbind();
+        owner = lifecycleOwner;
+        owner.getLifecycle().addObserver(this);
+        return this;
+    }
+
+    @Override
+    public void onDestroy(LifecycleOwner lifecycleOwner) {
+        cancel();
+    }
+
+    /**
+     * Cancel the request. Safe to call from any thread and more than once;
+     * has no effect once the request has answered.
+     */
+    public void cancel() {
+        List<Call<?>> toCancel;
+        List<Runnable> actions;
+        synchronized (this) {
+            if (cancelled || completed) {
+                return;
+            }
+            cancelled = true;
+            toCancel = new ArrayList<>(calls);
+            actions = new ArrayList<>(cancelActions);
+            calls.clear();
+            cancelActions.clear();
+        }
+        for (Call<?> call : toCancel) {
+            call.cancel();
+        }
+        runOnMainThread(() -> {
+            for (Runnable action : actions) {
+                action.run();
+            }
+            unbind();
+        });
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return true once the callback got its final answer
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Register a call of the request
+     * @return false if the request was cancelled; the call is then cancelled and must not be enqueued
+     */
+    synchronized boolean track(Call<?> call) {
+        if (cancelled) {
+            call.cancel();
+            return false;
+        }
+        calls.add(call);
+        return true;
+    }
+
+    /**
+     * Run an action on the main thread when the request is cancelled, e.g. to
+     * stop timers of a request in progress
+     */
+    synchronized void onCancel(Runnable action) {
+        if (!cancelled) {
+            cancelActions.add(action);
+        }
+    }
+
+    /**
+     * Wrap a callback so nothing reaches it after cancel(). Its final answer
+     * (songs, none found or error) completes the request.
+     * @param callback Callback, may be null
+     */
+    SpiritualMusicNetworkManager.SpiritualSearchCallback guard(SpiritualMusicNetworkManager.SpiritualSearchCallback callback) {
+        return new SpiritualMusicNetworkManager.SpiritualSearchCallback() {
+            @Override
+            public void onSpiritualSongsFound(List<Song> songs, int totalFound, int filtered) {
+                if (complete() && callback != null) {
+                    callback.onSpiritualSongsFound(songs, totalFound, filtered);
+                }
+            }
+
+            @Override
+            public void onNoSpiritualSongsFound(String message) {
+                if (complete() && callback != null) {
+                    callback.onNoSpiritualSongsFound(message);
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                if (complete() && callback != null) {
+                    callback.onError(error);
+                }
+            }
+
+            @Override
+            public void onLoading(boolean isLoading) {
+                if (!cancelled && callback != null) {
+                    callback.onLoading(isLoading);
+                }
+            }
+        };
+    }
+
+    /**
+     * Mark the request answered
+     * @return false if it was cancelled (or already answered) and the answer must be dropped
+     */
+    private boolean complete() {
+        synchronized (this) {
+            if (cancelled || completed) {
+                return false;
+            }
+            completed = true;
+            calls.clear();
+            cancelActions.clear();
+        }
+        runOnMainThread(this::unbind);
+        return true;
+    }
+
+    private void unbind() {
+        if (owner != null) {
+            owner.getLifecycle().removeObserver(this);
+            owner = null;
+        }
+    }
+
+    private void runOnMainThread(Runnable action) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            action.run();
+        } else {
+            mainHandler.post(action);
+        }
+    }
+}
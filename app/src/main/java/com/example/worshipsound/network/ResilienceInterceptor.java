@@ -0,0 +1,135 @@
+package com.example.worshipsound.network;
+
+import android.util.Log;
+
+import com.example.worshipsound.utils.CircuitBreaker;
+import com.example.worshipsound.utils.RateLimiter;
+import com.example.worshipsound.utils.RetryPolicy;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Application interceptor that retries idempotent requests with jittered
+ * exponential backoff and guards the service with a circuit breaker.
+ * Retries stay within the call's deadline (Call.timeout()). While the
+ * circuit is open requests fail fast with CircuitOpenException; installed
+ * inside CachePolicyInterceptors.offlineFallback, such failures are answered
+ * from the cache. The breaker records one outcome per call, once its retries
+ * are done. A retry is another request against Deezer's quota: it is only
+ * made if a RateLimiter permit is free at once, so retries never wait for
+ * one inside the dispatcher. Cache-only requests pass straight through.
+ */
+public class ResilienceInterceptor implements Interceptor {
+    private static final String TAG = "ResilienceInterceptor";
+
+    /**
+     * Thrown instead of sending a request while the circuit is open
+     */
+    public static class CircuitOpenException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public CircuitOpenException(String message) {
+            super(message);
+        }
+    }
+
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final RateLimiter rateLimiter;
+
+    public ResilienceInterceptor(RetryPolicy retryPolicy, CircuitBreaker circuitBreaker, RateLimiter rateLimiter) {
+        this.retryPolicy = retryPolicy;
+        this.circuitBreaker = circuitBreaker;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.cacheControl().onlyIfCached()) {
+            return chain.proceed(request);
+        }
+        if (!circuitBreaker.allowRequest()) {
+            throw new CircuitOpenException("Deezer unavailable, circuit open: " + request.url().encodedPath());
+        }
+
+        long timeoutNanos = chain.call().timeout().timeoutNanos();
+        long deadline = timeoutNanos > 0 ? System.nanoTime() + timeoutNanos : Long.MAX_VALUE;
+        int maxRetries = isIdempotent(request) ? retryPolicy.getMaxRetries() : 0;
+
+        // The breaker hears one outcome per call, after its retries, not one per attempt
+        for (int retry = 0; ; retry++) {
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                if (chain.call().isCanceled()) {
+                    throw e;
+                }
+                if (retry >= maxRetries || !backOff(chain, retry, deadline, request)) {
+                    recordGiveUp(chain);
+                    throw e;
+                }
+                Log.d(TAG, "Retrying after " + e.getMessage() + ": " + request.url().encodedPath());
+                continue;
+            }
+
+            if (!isRetryable(response.code())) {
+                // Cached answers say nothing about the service's health
+                if (response.networkResponse() != null) {
+                    circuitBreaker.recordSuccess();
+                }
+                return response;
+            }
+
+            if (retry >= maxRetries || !backOff(chain, retry, deadline, request)) {
+                recordGiveUp(chain);
+                return response;
+            }
+            Log.d(TAG, "Retrying after HTTP " + response.code() + ": " + request.url().encodedPath());
+            response.close();
+        }
+    }
+
+    /**
+     * Count a call that ran out of attempts as one breaker failure; a
+     * cancelled call says nothing about the service
+     */
+    private void recordGiveUp(Chain chain) {
+        if (!chain.call().isCanceled()) {
+            circuitBreaker.recordFailure();
+        }
+    }
+
+    /**
+     * Sleep before a retry
+     * @return false if the retry should not be made (deadline, open circuit, cancel, no free permit)
+     */
+    private boolean backOff(Chain chain, int retry, long deadline, Request request) throws IOException {
+        long delayMillis = retryPolicy.delayMillis(retry);
+        if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis) >= deadline) {
+            return false;
+        }
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during retry backoff");
+        }
+        return !chain.call().isCanceled() && rateLimiter.tryAcquire() && circuitBreaker.allowRequest();
+    }
+
+    private static boolean isIdempotent(Request request) {
+        return "GET".equals(request.method()) || "HEAD".equals(request.method());
+    }
+
+    private static boolean isRetryable(int code) {
+        return code == 408 || code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.worshipsound.network;
 
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
+import com.example.worshipsound.models.DeezerJson;
+import com.example.worshipsound.utils.CircuitBreaker;
+import com.example.worshipsound.utils.NetworkStats;
+import com.example.worshipsound.utils.RateLimiter;
+import com.example.worshipsound.utils.RetryPolicy;
+import java.util.concurrent.Executor;
+import okhttp3.Cache;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Singleton class for creating and managing Retrofit instance
@@ -14,44 +22,97 @@ public class RetrofitClient {
     private static final String TAG = "RetrofitClient";
     private static final String BASE_URL = "https://api.deezer.com/";
     private static RetrofitClient instance;
+
+    // Retry and circuit breaker defaults; adjustable through SpiritualMusicNetworkManager
+    private static final int DEFAULT_MAX_RETRIES = 2;
+    private static final long DEFAULT_RETRY_BASE_DELAY_MS = 250;
+    private static final long DEFAULT_RETRY_MAX_DELAY_MS = 2000;
+    private static final int DEFAULT_CIRCUIT_FAILURE_THRESHOLD = 5;
+    private static final long DEFAULT_CIRCUIT_OPEN_MS = 30 * 1000;
+    private final RetryPolicy retryPolicy = new RetryPolicy(
+            DEFAULT_MAX_RETRIES, DEFAULT_RETRY_BASE_DELAY_MS, DEFAULT_RETRY_MAX_DELAY_MS);
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(
+            DEFAULT_CIRCUIT_FAILURE_THRESHOLD, DEFAULT_CIRCUIT_OPEN_MS);
+
+    // Deezer allows about 50 requests per 5 seconds per IP; stay a little under it
+    private static final int DEFAULT_RATE_LIMIT_PERMITS = 45;
+    private static final long DEFAULT_RATE_LIMIT_PERIOD_MS = 5 * 1000;
+    private final RateLimiter rateLimiter = new RateLimiter(
+            DEFAULT_RATE_LIMIT_PERMITS, DEFAULT_RATE_LIMIT_PERIOD_MS);
     private final Retrofit retrofit;
     private final DeezerAPI deezerAPI;
+    private final Cache cache;
 
-    private RetrofitClient() {
-        // Create HTTP logging interceptor for debugging
-        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor(
-                message -> Log.d(TAG, "HTTP: " + message)
-        );
-        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-
-        // Create OkHttp client with timeout and logging
-        OkHttpClient okHttpClient = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .addInterceptor(loggingInterceptor)
-                .build();
+    /**
+     * @param context Application context enabling the disk cache and offline mode, or null
+     */
+    private RetrofitClient(Context context) {
+        // API lane of the shared HTTP stack; metrics go first so they see cache and offline outcomes.
+        // Rate limit permits are taken by DeezerRequestMerger before a call is handed to OkHttp.
+        HttpClientProvider provider = context != null
+                ? HttpClientProvider.getInstance(context)
+                : HttpClientProvider.getInstance();
+        NetworkStats stats = NetworkStats.getInstance();
+        OkHttpClient.Builder builder = provider.getApiClient().newBuilder()
+                .addInterceptor(MetricsInterceptors.application(stats))
+                .addNetworkInterceptor(MetricsInterceptors.network(stats));
 
-        // Create Retrofit instance
+        // Disk cache: search responses are rewritten to be cacheable and served stale when offline
+        cache = provider.getCache();
+        DeezerRequestMerger.CacheProbe cacheProbe = null;
+        if (context != null && cache != null) {
+            ConnectivityMonitor monitor = new ConnectivityMonitor(context);
+            builder.addInterceptor(CachePolicyInterceptors.offlineFallback(monitor))
+                    .addNetworkInterceptor(CachePolicyInterceptors.searchCacheHeaders());
+            cacheProbe = CachePolicyInterceptors.cacheProbe(provider.getApiClient(), monitor);
+        }
+
+        // Retries and the circuit breaker sit inside the offline fallback, which answers their failures from the cache
+        builder.addInterceptor(new ResilienceInterceptor(retryPolicy, circuitBreaker, rateLimiter));
+
+        OkHttpClient okHttpClient = builder.build();
+
+        // Create Retrofit instance; callbacks run on the main thread
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        Executor mainThread = mainHandler::post;
         retrofit = new Retrofit.Builder()
                 .baseUrl(BASE_URL)
                 .client(okHttpClient)
-                .addConverterFactory(GsonConverterFactory.create())
+                .callbackExecutor(mainThread)
+                // @SpiritualOnly search methods filter while decoding; every other method gets plain Gson
+                .addConverterFactory(new SpiritualOnlyConverterFactory())
+                .addConverterFactory(GsonConverterFactory.create(DeezerJson.getGson()))
                 .build();
 
-        // Create API service
-        deezerAPI = retrofit.create(DeezerAPI.class);
+        // Create API service; identical requests in flight share one call, and every call
+        // that goes to the network waits for a rate limit permit before OkHttp sees it
+        deezerAPI = new DeezerRequestMerger(retrofit.create(DeezerAPI.class), rateLimiter, mainThread, cacheProbe);
         
-        Log.d(TAG, "RetrofitClient initialized with base URL: " + BASE_URL);
+        Log.d(TAG, "RetrofitClient initialized with base URL: " + BASE_URL + (cache != null ? " (disk cache)" : ""));
     }
 
     /**
-     * Get singleton instance of RetrofitClient
+     * Get singleton instance of RetrofitClient.
+     * Without a prior getInstance(Context) call the client has no disk cache.
      * @return RetrofitClient instance
      */
     public static synchronized RetrofitClient getInstance() {
         if (instance == null) {
-            instance = new RetrofitClient();
+            instance = new RetrofitClient(null);
+        }
+        return instance;
+    }
+
+    /**
+     * Get singleton instance of RetrofitClient with the disk cache and offline mode
+     * @param context Any context; the application context is kept
+     * @return RetrofitClient instance
+     */
+    public static synchronized RetrofitClient getInstance(Context context) {
+        if (instance == null) {
+            instance = new RetrofitClient(context.getApplicationContext());
+        } else if (instance.cache == null) {
+            Log.w(TAG, "RetrofitClient was created before a context was available; disk cache disabled");
         }
         return instance;
     }
@@ -72,6 +133,43 @@ public class RetrofitClient {
         return retrofit;
     }
 
+    /**
+     * Get the HTTP disk cache
+     * @return Cache, or null if the client was created without a context
+     */
+    public Cache getCache() {
+        return cache;
+    }
+
+    /**
+     * Get the retry policy applied to idempotent API requests
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Get the circuit breaker guarding the Deezer API
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Get the rate limiter every call to Deezer takes a permit from
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Get request metrics (latency, bytes, status codes, cache hits, retries)
+     * @return Process-wide network stats
+     */
+    public NetworkStats getNetworkStats() {
+        return NetworkStats.getInstance();
+    }
+
     /**
      * Get base URL
      * @return Base URL string
@@ -1,14 +1,44 @@
 package com.example.worshipsound.network;
 
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 
+import com.example.worshipsound.database.SongDAO;
 import com.example.worshipsound.models.DeezerResponse;
 import com.example.worshipsound.models.Song;
+import com.example.worshipsound.utils.CircuitBreaker;
+import com.example.worshipsound.utils.LatencyTracker;
+import com.example.worshipsound.utils.QueryYieldStore;
+import com.example.worshipsound.utils.RateLimiter;
+import com.example.worshipsound.utils.SpiritualClassification;
+import com.example.worshipsound.utils.SpiritualQueryPlanner;
+import com.example.worshipsound.utils.SpiritualResultCache;
 import com.example.worshipsound.utils.SpiritualSongFilter;
+import com.example.worshipsound.utils.SongInterleaver;
+import com.example.worshipsound.utils.SpiritualSongRanker;
+import com.example.worshipsound.utils.TrackVariantCollapser;
+import com.example.worshipsound.utils.TrendingSnapshotStore;
+import com.example.worshipsound.utils.TrendingWarmer;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
+import okhttp3.HttpUrl;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -20,6 +50,86 @@ public class SpiritualMusicNetworkManager {
     private static final String TAG = "SpiritualNetworkManager";
     private static SpiritualMusicNetworkManager instance;
     private final RetrofitClient retrofitClient;
+    private final ExecutorService executorService;
+    private final Handler mainHandler;
+    private final SpiritualQueryPlanner queryPlanner;
+    
+    // Filtered results of recent requests, including empty ones
+    private static final int RESULT_CACHE_SIZE = 64;
+    private static final long DEFAULT_RESULT_CACHE_TTL_MS = 5 * 60 * 1000;
+    private static final String KIND_SEARCH = "search";
+    private static final String KIND_TRENDING = "trending";
+    private static final String KIND_MIX = "mix";
+    private static final String KIND_MIX_QUERY = "mix-query";
+    private static final String NO_TRENDING_MESSAGE = "No spiritual songs available at the moment";
+    private final SpiritualResultCache resultCache;
+    
+    /**
+     * How a search that finds no spiritual songs falls back to other query variants
+     */
+    public enum FallbackMode {
+        // Try one fallback variant after the primary query came back empty
+        SEQUENTIAL,
+        // Send the primary query and all fallback variants at once, capped in parallel
+        PARALLEL
+    }
+    
+    // Page sizes follow each query's filter yield so a round trip shows about this many songs
+    public static final int ADAPTIVE_LIMIT = 0;
+    private static final int TARGET_VISIBLE_SONGS = 25;
+    
+    // Parallel fan-out settings
+    private static final int MAX_PARALLEL_CALLS = 3;
+    private static final int FAN_OUT_TARGET_SONGS = 30;
+    
+    // Queries blended by getSpiritualMix(callback)
+    public static final int DEFAULT_MIX_QUERIES = 3;
+    private volatile FallbackMode fallbackMode = FallbackMode.SEQUENTIAL;
+    
+    // Trending hedging: a second query is sent if the first is slower than the observed p95
+    private static final double HEDGE_PERCENTILE = 95;
+    private static final long DEFAULT_HEDGE_DELAY_MS = 1500;
+    private static final long MIN_HEDGE_DELAY_MS = 300;
+    private static final long MAX_HEDGE_DELAY_MS = 5000;
+    private final LatencyTracker searchLatency = new LatencyTracker(100);
+    
+    /**
+     * Kind of request, each with its own deadline (total time including retries)
+     */
+    public enum CallType {
+        // The user is waiting: searches, fallbacks, trending, the first cursor page
+        INTERACTIVE,
+        // Nobody is waiting: cursor prefetch, background warm-up
+        BACKGROUND
+    }
+    
+    private static final long DEFAULT_INTERACTIVE_DEADLINE_MS = 10 * 1000;
+    private static final long DEFAULT_BACKGROUND_DEADLINE_MS = 30 * 1000;
+    private volatile long interactiveDeadlineMs = DEFAULT_INTERACTIVE_DEADLINE_MS;
+    private volatile long backgroundDeadlineMs = DEFAULT_BACKGROUND_DEADLINE_MS;
+    
+    // Search cursor paging: pages are fetched ahead as the consumer nears the end of the window
+    public static final int DEFAULT_PREFETCH_DISTANCE = 10;
+    private static final int MAX_WINDOW_PAGES = 8;
+    private static final int MAX_EMPTY_PAGES_IN_A_ROW = 3;
+    
+    // Persisted score cache (null until a context is supplied)
+    private static final int SEEDED_SCORE_COUNT = 2048;
+    private SongDAO songDAO;
+    private long dictionaryHash;
+    private boolean staleScoresPruned = false;
+    private volatile Map<String, Integer> likedArtistCounts;
+    
+    // Trending results fetched ahead of time by TrendingWarmupJobService (null until a context is supplied)
+    private TrendingWarmer.Store trendingSnapshots;
+    private volatile long snapshotMaxAgeMs = TrendingWarmer.DEFAULT_MAX_AGE_MS;
+    
+    // Receives the collapsed and ranked spiritual songs of a response on the main thread. Query
+    // yield is recorded from the response's getSpiritualSongCount(), the count before collapsing
+    // and the top-K cut, which is already computed by then.
+    private interface FilterResultListener {
+        void onFiltered(List<Song> spiritualSongs);
+    }
     
     // Interface for spiritual search callbacks
     public interface SpiritualSearchCallback {
@@ -29,8 +139,20 @@ public class SpiritualMusicNetworkManager {
         void onLoading(boolean isLoading);
     }
     
+    // Interface for search cursor updates, called on the main thread
+    public interface SearchCursorListener {
+        void onSongsAppended(List<Song> songs);
+        void onSongsDropped(int count);
+        void onNoSpiritualSongsFound(String message);
+        void onError(String error);
+    }
+    
     private SpiritualMusicNetworkManager() {
         retrofitClient = RetrofitClient.getInstance();
+        executorService = Executors.newSingleThreadExecutor();
+        mainHandler = new Handler(Looper.getMainLooper());
+        queryPlanner = SpiritualQueryPlanner.getInstance();
+        resultCache = new SpiritualResultCache(RESULT_CACHE_SIZE, DEFAULT_RESULT_CACHE_TTL_MS);
     }
     
     public static synchronized SpiritualMusicNetworkManager getInstance() {
@@ -40,31 +162,165 @@ public class SpiritualMusicNetworkManager {
         return instance;
     }
     
+    /**
+     * Get singleton instance with the persisted spiritual score cache and query yields enabled
+     * @param context Any context; used to open the database and preferences
+     */
+    public static synchronized SpiritualMusicNetworkManager getInstance(Context context) {
+        // Create the shared client with its disk cache before the manager picks it up
+        RetrofitClient.getInstance(context);
+        SpiritualMusicNetworkManager manager = getInstance();
+        if (manager.songDAO == null) {
+            manager.songDAO = SongDAO.getInstance(context);
+            manager.executorService.execute(manager::prepareScoreCache);
+            manager.queryPlanner.setStore(new QueryYieldStore(context));
+            manager.trendingSnapshots = new TrendingSnapshotStore(context);
+        }
+        return manager;
+    }
+    
+    /**
+     * Get the in-memory result cache, e.g. for its hit, miss and eviction counters
+     */
+    public SpiritualResultCache getResultCache() {
+        return resultCache;
+    }
+    
+    /**
+     * Set how long filtered results are reused before Deezer is asked again
+     * @param ttlMillis Time to live in milliseconds; 0 disables reuse
+     */
+    public void setResultCacheTtl(long ttlMillis) {
+        resultCache.setTtlMillis(ttlMillis);
+        resultCache.clear();
+    }
+    
+    /**
+     * Choose how searches fall back to other query variants
+     * @param mode SEQUENTIAL (default) or PARALLEL
+     */
+    public void setFallbackMode(FallbackMode mode) {
+        fallbackMode = mode;
+    }
+    
+    public FallbackMode getFallbackMode() {
+        return fallbackMode;
+    }
+    
+    /**
+     * Set the deadline of a kind of request, covering all of its retries
+     * @param type Call type
+     * @param deadlineMillis Deadline in milliseconds; 0 for none
+     */
+    public void setDeadlineMillis(CallType type, long deadlineMillis) {
+        if (type == CallType.INTERACTIVE) {
+            interactiveDeadlineMs = deadlineMillis;
+        } else {
+            backgroundDeadlineMs = deadlineMillis;
+        }
+    }
+    
+    public long getDeadlineMillis(CallType type) {
+        return type == CallType.INTERACTIVE ? interactiveDeadlineMs : backgroundDeadlineMs;
+    }
+    
+    /**
+     * Configure retries of failed Deezer GETs (I/O errors, 408, 429 and 5xx)
+     * @param maxRetries Retries after the first attempt; 0 disables retrying
+     * @param baseDelayMillis Backoff cap of the first retry, doubled for each further one
+     * @param maxDelayMillis Upper bound of any backoff
+     */
+    public void setRetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis) {
+        retrofitClient.getRetryPolicy().configure(maxRetries, baseDelayMillis, maxDelayMillis);
+    }
+    
+    /**
+     * Configure the circuit breaker. While it is open, searches are answered
+     * from the HTTP cache (when a context was supplied) without contacting Deezer.
+     * @param failureThreshold Failures in a row that open the circuit
+     * @param openMillis How long it stays open before a probe request
+     */
+    public void setCircuitBreaker(int failureThreshold, long openMillis) {
+        retrofitClient.getCircuitBreaker().configure(failureThreshold, openMillis);
+    }
+    
+    public CircuitBreaker.State getCircuitState() {
+        return retrofitClient.getCircuitBreaker().getState();
+    }
+    
+    /**
+     * Configure the client-side rate limit. Requests over it wait for a permit,
+     * interactive searches first, then trending, fallback and prefetch.
+     * @param maxPermits Requests allowed per period, also the burst size
+     * @param periodMillis Length of the period
+     */
+    public void setRateLimit(int maxPermits, long periodMillis) {
+        retrofitClient.getRateLimiter().configure(maxPermits, periodMillis);
+    }
+    
     /**
      * Search for spiritual songs with enhanced filtering
      * @param query User's search query
      * @param callback Callback for results
+     * @return Handle to cancel the search, including its fallbacks
      */
-    public void searchSpiritualSongs(String query, SpiritualSearchCallback callback) {
-        searchSpiritualSongs(query, 50, 0, callback);
+    public RequestHandle searchSpiritualSongs(String query, SpiritualSearchCallback callback) {
+        return searchSpiritualSongs(query, ADAPTIVE_LIMIT, 0, callback);
+    }
+    
+    /**
+     * Open a cursor over the filtered results of a search. The first page is
+     * requested at once, as searchSpiritualSongs would (result cache, fallback
+     * queries); later pages follow the primary query as the consumer reports
+     * positions near the end of what has been loaded.
+     * @param query User's search query
+     * @param prefetchDistance How many songs before the end the next page is requested
+     * @param listener Receives pages on the main thread
+     * @return Cursor; close() it when the results are no longer shown
+     */
+    public SearchCursor openSearchCursor(String query, int prefetchDistance, SearchCursorListener listener) {
+        SearchCursor cursor = new SearchCursor(query, prefetchDistance, listener);
+        cursor.fetchFirstPage();
+        return cursor;
     }
     
     /**
      * Search for spiritual songs with pagination
      * @param query User's search query
-     * @param limit Number of results to return
+     * @param limit Number of results to return, or ADAPTIVE_LIMIT to size the page from the query's yield
      * @param index Starting index for pagination
      * @param callback Callback for results
+     * @return Handle to cancel the search, including its fallbacks
      */
-    public void searchSpiritualSongs(String query, int limit, int index, SpiritualSearchCallback callback) {
+    public RequestHandle searchSpiritualSongs(String query, int limit, int index, SpiritualSearchCallback callback) {
+        RequestHandle handle = new RequestHandle(mainHandler);
+        search(query, limit, index, handle.guard(callback), handle);
+        return handle;
+    }
+    
+    private void search(String query, int limit, int index, SpiritualSearchCallback callback, RequestHandle handle) {
+        String cacheKey = SpiritualResultCache.key(KIND_SEARCH, query, limit, index);
+        if (deliverCached(cacheKey, noSpiritualSongsMessage(query), callback)) {
+            return;
+        }
+        
         if (callback != null) {
             callback.onLoading(true);
         }
         
-        // Enhance query for better spiritual results
-        String enhancedQuery = SpiritualSongFilter.enhanceQueryForSpiritual(query);
+        if (fallbackMode == FallbackMode.PARALLEL) {
+            new FanOutSearch(query, limit, index, cacheKey, callback, handle).start();
+            return;
+        }
+        
+        // Enhance query with the spiritual context that has yielded best so far
+        SpiritualQueryPlanner.Plan plan = SpiritualSongFilter.planEnhancedQuery(query);
+        int pageSize = pageSize(plan, limit);
         
-        Call<DeezerResponse> call = retrofitClient.getDeezerAPI().searchTracks(enhancedQuery, limit, index);
+        Call<DeezerResponse> call = searchCall(RateLimiter.Priority.INTERACTIVE, plan, pageSize, index);
+        if (!handle.track(call)) {
+            return;
+        }
         
         call.enqueue(new Callback<DeezerResponse>() {
             @Override
@@ -74,19 +330,25 @@ public class SpiritualMusicNetworkManager {
                 }
                 
                 if (response.isSuccessful() && response.body() != null && response.body().hasData()) {
-                    List<Song> allSongs = response.body().getSongs();
-                    List<Song> spiritualSongs = SpiritualSongFilter.filterSpiritualSongs(allSongs);
-                    
-                    if (!spiritualSongs.isEmpty()) {
-                        if (callback != null) {
-                            callback.onSpiritualSongsFound(spiritualSongs, allSongs.size(), spiritualSongs.size());
+                    int totalFound = response.body().getScannedCount();
+                    filterResponse(response.body(), pageSize, spiritualSongs -> {
+                        queryPlanner.recordYield(plan, totalFound, response.body().getSpiritualSongCount());
+                        if (!spiritualSongs.isEmpty()) {
+                            resultCache.put(cacheKey, spiritualSongs, totalFound);
+                            if (callback != null) {
+                                callback.onSpiritualSongsFound(spiritualSongs, totalFound, spiritualSongs.size());
+                            }
+                            Log.d(TAG, "Found " + spiritualSongs.size() + " spiritual songs from " + totalFound + " total");
+                        } else {
+                            // Try fallback search with different spiritual terms
+                            performFallbackSearch(query, cacheKey, callback, handle);
                         }
-                        Log.d(TAG, "Found " + spiritualSongs.size() + " spiritual songs from " + allSongs.size() + " total");
-                    } else {
-                        // Try fallback search with different spiritual terms
-                        performFallbackSearch(query, callback);
-                    }
+                    });
                 } else {
+                    if (response.isSuccessful()) {
+                        // An empty page counts as a page of misses for the template
+                        queryPlanner.recordYield(plan, pageSize, 0);
+                    }
                     if (callback != null) {
                         callback.onError("Failed to search songs: " + response.code());
                     }
@@ -108,71 +370,192 @@ public class SpiritualMusicNetworkManager {
     /**
      * Get trending spiritual songs
      * @param callback Callback for results
+     * @return Handle to cancel the load, including its hedge query
      */
-    public void getTrendingSpiritualSongs(SpiritualSearchCallback callback) {
-        if (callback != null) {
-            callback.onLoading(true);
-        }
-        
-        // Use predefined spiritual search queries
+    public RequestHandle getTrendingSpiritualSongs(SpiritualSearchCallback callback) {
+        RequestHandle handle = new RequestHandle(mainHandler);
+        loadTrending(handle.guard(callback), handle);
+        return handle;
+    }
+    
+    private void loadTrending(SpiritualSearchCallback callback, RequestHandle handle) {
+        // Use a random predefined spiritual query so the home feed varies; its yield is still recorded
         String[] spiritualQueries = SpiritualSongFilter.getSpiritualSearchQueries();
         Random random = new Random();
-        String selectedQuery = spiritualQueries[random.nextInt(spiritualQueries.length)];
+        SpiritualQueryPlanner.Plan plan = queryPlanner.forTemplate(SpiritualQueryPlanner.Group.TRENDING,
+                spiritualQueries[random.nextInt(spiritualQueries.length)], null);
         
-        Call<DeezerResponse> call = retrofitClient.getDeezerAPI().searchTracks(selectedQuery, 50, 0);
+        String cacheKey = SpiritualResultCache.key(KIND_TRENDING, plan.getQuery(), ADAPTIVE_LIMIT, 0);
+        if (deliverCached(cacheKey, NO_TRENDING_MESSAGE, callback)) {
+            return;
+        }
         
-        call.enqueue(new Callback<DeezerResponse>() {
-            @Override
-            public void onResponse(Call<DeezerResponse> call, Response<DeezerResponse> response) {
-                if (callback != null) {
-                    callback.onLoading(false);
-                }
-                
-                if (response.isSuccessful() && response.body() != null && response.body().hasData()) {
-                    List<Song> allSongs = response.body().getSongs();
-                    List<Song> spiritualSongs = SpiritualSongFilter.filterSpiritualSongs(allSongs);
-                    
-                    if (!spiritualSongs.isEmpty()) {
-                        if (callback != null) {
-                            callback.onSpiritualSongsFound(spiritualSongs, allSongs.size(), spiritualSongs.size());
-                        }
-                        Log.d(TAG, "Found " + spiritualSongs.size() + " trending spiritual songs");
-                    } else {
-                        // Try another spiritual query
-                        retryWithDifferentSpiritualQuery(callback);
-                    }
-                } else {
-                    if (callback != null) {
-                        callback.onError("Failed to load trending songs");
-                    }
-                }
+        Runnable loadLive = () -> {
+            if (handle.isCancelled()) {
+                return;
             }
-            
-            @Override
-            public void onFailure(Call<DeezerResponse> call, Throwable t) {
-                if (callback != null) {
-                    callback.onLoading(false);
-                    callback.onError("Network error: " + t.getMessage());
-                }
-                Log.e(TAG, "Network error loading trending", t);
+            if (callback != null) {
+                callback.onLoading(true);
             }
+            new HedgedTrendingLoad(plan, cacheKey, callback, handle).start();
+        };
+        seedFromSnapshot(plan, cacheKey, () -> {
+            if (!deliverCached(cacheKey, NO_TRENDING_MESSAGE, callback)) {
+                loadLive.run();
+            }
+        }, loadLive);
+    }
+    
+    /**
+     * Put a trending query's warmed snapshot (fetched ahead of time while the
+     * device was charging on Wi-Fi) into the result cache. The snapshot is read
+     * and decoded on the filter executor; the outcome is reported on the main thread.
+     * @param onSeeded Run if a fresh snapshot was put into the result cache
+     * @param onMissing Run if there is none; at once when snapshots are not in use
+     */
+    private void seedFromSnapshot(SpiritualQueryPlanner.Plan plan, String cacheKey,
+                                  Runnable onSeeded, Runnable onMissing) {
+        TrendingWarmer.Store snapshots = trendingSnapshots;
+        long maxAgeMs = snapshotMaxAgeMs;
+        if (snapshots == null || maxAgeMs <= 0) {
+            onMissing.run();
+            return;
+        }
+        executorService.execute(() -> {
+            TrendingWarmer.Snapshot snapshot = TrendingWarmer.readFresh(snapshots, plan.getTemplate(), maxAgeMs);
+            if (snapshot != null) {
+                Log.d(TAG, "Trending snapshot hit: " + plan.getTemplate());
+                resultCache.put(cacheKey, snapshot.getSongs(), snapshot.getTotalFound());
+            }
+            mainHandler.post(snapshot != null ? onSeeded : onMissing);
         });
     }
     
+    /**
+     * Get a blended feed of DEFAULT_MIX_QUERIES random trending queries; when the
+     * user has liked songs, their most liked artist takes one of the places
+     * @param callback Callback for results
+     * @return Handle to cancel the load
+     */
+    public RequestHandle getSpiritualMix(SpiritualSearchCallback callback) {
+        return getSpiritualMix(false, callback);
+    }
+    
+    /**
+     * Get a blended feed of DEFAULT_MIX_QUERIES random trending queries
+     * @param refresh true to ask Deezer again instead of reusing cached results
+     *                or warmed snapshots, e.g. on swipe-to-refresh
+     * @param callback Callback for results
+     * @return Handle to cancel the load
+     */
+    public RequestHandle getSpiritualMix(boolean refresh, SpiritualSearchCallback callback) {
+        return getSpiritualMix(pickMixQueries(DEFAULT_MIX_QUERIES), ADAPTIVE_LIMIT, refresh, callback);
+    }
+    
+    /**
+     * Get one feed blended from several queries. The queries run in parallel
+     * (each answered from the result cache or a warmed snapshot when possible);
+     * their ranked spiritual songs are merged by track id and interleaved, so
+     * one load shows the variety of several trending loads.
+     * @param queries Queries in the order they take turns in the feed; trending
+     *                queries from SpiritualSongFilter.getSpiritualSearchQueries()
+     *                share their results with getTrendingSpiritualSongs
+     * @param limit Maximum number of songs, or ADAPTIVE_LIMIT for all that were found
+     * @param callback Callback for results
+     * @return Handle to cancel the load
+     */
+    public RequestHandle getSpiritualMix(List<String> queries, int limit, SpiritualSearchCallback callback) {
+        return getSpiritualMix(queries, limit, false, callback);
+    }
+    
+    /**
+     * Get one feed blended from several queries
+     * @param refresh true to send every query to Deezer; the fresh results still replace the cached ones
+     * @see #getSpiritualMix(List, int, SpiritualSearchCallback)
+     */
+    public RequestHandle getSpiritualMix(List<String> queries, int limit, boolean refresh,
+                                         SpiritualSearchCallback callback) {
+        RequestHandle handle = new RequestHandle(mainHandler);
+        SpiritualSearchCallback guarded = handle.guard(callback);
+        String mixKey = SpiritualResultCache.key(KIND_MIX, String.join("|", queries), limit, 0);
+        if (!refresh && deliverCached(mixKey, NO_TRENDING_MESSAGE, guarded)) {
+            return handle;
+        }
+        
+        guarded.onLoading(true);
+        new MixLoad(queries, limit, refresh, mixKey, guarded, handle).start();
+        return handle;
+    }
+    
+    /**
+     * Choose the queries of a default mix
+     */
+    private List<String> pickMixQueries(int count) {
+        List<String> queries = new ArrayList<>();
+        Map<String, Integer> likedArtists = likedArtistCounts;
+        if (likedArtists != null && !likedArtists.isEmpty()) {
+            String favorite = Collections.max(likedArtists.entrySet(), Map.Entry.comparingByValue()).getKey();
+            queries.add(favorite);
+        }
+        List<String> trendingQueries = new ArrayList<>(Arrays.asList(SpiritualSongFilter.getSpiritualSearchQueries()));
+        Collections.shuffle(trendingQueries);
+        for (String query : trendingQueries) {
+            if (queries.size() >= count) {
+                break;
+            }
+            queries.add(query);
+        }
+        // The favorite artist should not always lead the feed
+        Collections.shuffle(queries);
+        return queries;
+    }
+    
+    /**
+     * Fetch, filter and store every trending query so getTrendingSpiritualSongs
+     * can answer without a live search. Blocks; call from a background thread.
+     * @param stopRequested Checked between queries; true ends the run early
+     * @return Outcome, or null without a context (nowhere to store snapshots)
+     */
+    public TrendingWarmer.Result warmTrendingSnapshots(BooleanSupplier stopRequested) {
+        if (trendingSnapshots == null) {
+            Log.w(TAG, "Trending warm-up skipped: no snapshot store");
+            return null;
+        }
+        TrendingWarmer.Fetcher fetcher = new TrendingSearchFetcher(retrofitClient.getDeezerAPI(), queryPlanner,
+                TARGET_VISIBLE_SONGS, getDeadlineMillis(CallType.BACKGROUND));
+        SpiritualSongRanker ranker = SpiritualSongRanker.createDefault(
+                songDAO != null ? songDAO.getLikedArtistCounts() : null);
+        TrendingWarmer.Result result = new TrendingWarmer(fetcher, trendingSnapshots, ranker).warm(stopRequested);
+        Log.d(TAG, "Trending warm-up: " + result);
+        return result;
+    }
+    
+    /**
+     * Set how old a warmed trending snapshot may be and still be shown
+     * @param maxAgeMillis Maximum age in milliseconds; 0 ignores snapshots
+     */
+    public void setTrendingSnapshotMaxAge(long maxAgeMillis) {
+        snapshotMaxAgeMs = maxAgeMillis;
+    }
+    
     /**
      * Search for high-quality spiritual songs (with minimum spiritual score)
      * @param query Search query
      * @param minimumScore Minimum spiritual score (0-100)
      * @param callback Callback for results
+     * @return Handle to cancel the search
      */
-    public void searchHighQualitySpiritualSongs(String query, int minimumScore, SpiritualSearchCallback callback) {
-        searchSpiritualSongs(query, 100, 0, new SpiritualSearchCallback() {
+    public RequestHandle searchHighQualitySpiritualSongs(String query, int minimumScore, SpiritualSearchCallback callback) {
+        return searchSpiritualSongs(query, SpiritualQueryPlanner.MAX_PAGE_SIZE, 0, new SpiritualSearchCallback() {
             @Override
             public void onSpiritualSongsFound(List<Song> songs, int totalFound, int filtered) {
-                // Further filter by spiritual score
-                List<Song> highQualitySongs = songs.stream()
-                    .filter(song -> SpiritualSongFilter.calculateSpiritualScore(song) >= minimumScore)
-                    .collect(java.util.stream.Collectors.toList());
+                // Further filter by the score memoized when the songs were classified
+                List<Song> highQualitySongs = new ArrayList<>();
+                for (Song song : songs) {
+                    if (SpiritualSongFilter.classify(song).getScore() >= minimumScore) {
+                        highQualitySongs.add(song);
+                    }
+                }
                 
                 if (!highQualitySongs.isEmpty()) {
                     if (callback != null) {
@@ -210,39 +593,46 @@ public class SpiritualMusicNetworkManager {
     
     /**
      * Perform fallback search if no spiritual songs found
+     * @param cacheKey Result cache key of the original search, which receives the outcome
+     * @param handle Handle of the original search; nothing is sent once it is cancelled
      */
-    private void performFallbackSearch(String originalQuery, SpiritualSearchCallback callback) {
-        String[] fallbackQueries = {
-            "gospel " + originalQuery,
-            "worship " + originalQuery,
-            "christian " + originalQuery,
-            originalQuery + " praise",
-            originalQuery + " hymn"
-        };
-        
-        Random random = new Random();
-        String fallbackQuery = fallbackQueries[random.nextInt(fallbackQueries.length)];
+    private void performFallbackSearch(String originalQuery, String cacheKey, SpiritualSearchCallback callback,
+                                       RequestHandle handle) {
+        if (handle.isCancelled()) {
+            return;
+        }
+        SpiritualQueryPlanner.Plan plan = queryPlanner.plan(SpiritualQueryPlanner.Group.FALLBACK, originalQuery);
+        int pageSize = pageSize(plan, ADAPTIVE_LIMIT);
         
-        Call<DeezerResponse> call = retrofitClient.getDeezerAPI().searchTracks(fallbackQuery, 30, 0);
+        Call<DeezerResponse> call = searchCall(RateLimiter.Priority.FALLBACK, plan, pageSize, 0);
+        if (!handle.track(call)) {
+            return;
+        }
         
         call.enqueue(new Callback<DeezerResponse>() {
             @Override
             public void onResponse(Call<DeezerResponse> call, Response<DeezerResponse> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().hasData()) {
-                    List<Song> allSongs = response.body().getSongs();
-                    List<Song> spiritualSongs = SpiritualSongFilter.filterSpiritualSongs(allSongs);
-                    
-                    if (!spiritualSongs.isEmpty()) {
-                        if (callback != null) {
-                            callback.onSpiritualSongsFound(spiritualSongs, allSongs.size(), spiritualSongs.size());
+                    int totalFound = response.body().getScannedCount();
+                    filterResponse(response.body(), pageSize, spiritualSongs -> {
+                        queryPlanner.recordYield(plan, totalFound, response.body().getSpiritualSongCount());
+                        resultCache.put(cacheKey, spiritualSongs, totalFound);
+                        if (!spiritualSongs.isEmpty()) {
+                            if (callback != null) {
+                                callback.onSpiritualSongsFound(spiritualSongs, totalFound, spiritualSongs.size());
+                            }
+                            Log.d(TAG, "Fallback search successful: " + spiritualSongs.size() + " spiritual songs");
+                        } else {
+                            if (callback != null) {
+                                callback.onNoSpiritualSongsFound(noSpiritualSongsMessage(originalQuery));
+                            }
                         }
-                        Log.d(TAG, "Fallback search successful: " + spiritualSongs.size() + " spiritual songs");
-                    } else {
-                        if (callback != null) {
-                            callback.onNoSpiritualSongsFound("No spiritual songs found for \"" + originalQuery + "\". Try searching for gospel, worship, or christian music.");
-                        }
-                    }
+                    });
                 } else {
+                    if (response.isSuccessful()) {
+                        queryPlanner.recordYield(plan, pageSize, 0);
+                        resultCache.put(cacheKey, null, 0);
+                    }
                     if (callback != null) {
                         callback.onNoSpiritualSongsFound("No spiritual songs found for \"" + originalQuery + "\"");
                     }
@@ -260,46 +650,855 @@ public class SpiritualMusicNetworkManager {
     }
     
     /**
-     * Retry with different spiritual query for trending songs
+     * Get the delay after which a trending load sends its hedge query
+     * @return Observed p95 search latency, clamped to MIN/MAX_HEDGE_DELAY_MS
      */
-    private void retryWithDifferentSpiritualQuery(SpiritualSearchCallback callback) {
-        String[] spiritualQueries = SpiritualSongFilter.getSpiritualSearchQueries();
-        Random random = new Random();
-        String retryQuery = spiritualQueries[random.nextInt(spiritualQueries.length)];
+    public long getHedgeDelayMillis() {
+        long p95 = searchLatency.getPercentile(HEDGE_PERCENTILE, DEFAULT_HEDGE_DELAY_MS);
+        return Math.max(MIN_HEDGE_DELAY_MS, Math.min(MAX_HEDGE_DELAY_MS, p95));
+    }
+    
+    /**
+     * A trending load hedged with a second query. The second query (the
+     * best-yielding other trending query) is sent when the first has not
+     * answered within getHedgeDelayMillis(), or at once if the first found no
+     * spiritual songs or failed. The first usable result wins and the other call
+     * is cancelled; its elapsed time still goes into the latency samples as a
+     * lower bound. Samples cover only Deezer's part: they start when a call is
+     * sent, after its rate limit wait, and responses from the disk cache are left
+     * out. Confined to the main thread, where Retrofit and filterResponse call back.
+     */
+    private final class HedgedTrendingLoad {
+        private final SpiritualQueryPlanner.Plan primary;
+        private final String cacheKey;
+        private final SpiritualSearchCallback callback;
+        private final RequestHandle handle;
+        private final Runnable hedgeTask = this::sendHedge;
         
-        Call<DeezerResponse> call = retrofitClient.getDeezerAPI().searchTracks(retryQuery, 30, 0);
+        private final List<Call<DeezerResponse>> running = new ArrayList<>();
+        // Calls whose latency has not been recorded yet
+        private final Set<Call<DeezerResponse>> unmeasured = new HashSet<>();
+        private boolean hedged = false;
+        private boolean anySuccessful = false;
+        private String firstError;
+        private boolean finished = false;
         
-        call.enqueue(new Callback<DeezerResponse>() {
-            @Override
-            public void onResponse(Call<DeezerResponse> call, Response<DeezerResponse> response) {
-                if (response.isSuccessful() && response.body() != null && response.body().hasData()) {
-                    List<Song> allSongs = response.body().getSongs();
-                    List<Song> spiritualSongs = SpiritualSongFilter.filterSpiritualSongs(allSongs);
+        HedgedTrendingLoad(SpiritualQueryPlanner.Plan primary, String cacheKey, SpiritualSearchCallback callback,
+                           RequestHandle handle) {
+            this.primary = primary;
+            this.cacheKey = cacheKey;
+            this.callback = callback;
+            this.handle = handle;
+        }
+        
+        void start() {
+            // Cancelling the handle cancels the calls; the hedge timer is stopped here
+            handle.onCancel(() -> {
+                finished = true;
+                mainHandler.removeCallbacks(hedgeTask);
+                running.clear();
+                unmeasured.clear();
+            });
+            launch(primary);
+            mainHandler.postDelayed(hedgeTask, getHedgeDelayMillis());
+        }
+        
+        private void sendHedge() {
+            if (finished || hedged || handle.isCancelled()) {
+                return;
+            }
+            hedged = true;
+            mainHandler.removeCallbacks(hedgeTask);
+            SpiritualQueryPlanner.Plan hedge = queryPlanner.plan(
+                    SpiritualQueryPlanner.Group.TRENDING, null, primary.getTemplate());
+            Log.d(TAG, "Hedging trending load with \"" + hedge.getQuery() + "\"");
+            launch(hedge);
+        }
+        
+        private void launch(SpiritualQueryPlanner.Plan plan) {
+            int pageSize = pageSize(plan, ADAPTIVE_LIMIT);
+            Call<DeezerResponse> call = searchCall(RateLimiter.Priority.TRENDING, plan, pageSize, 0);
+            if (!handle.track(call)) {
+                return;
+            }
+            running.add(call);
+            unmeasured.add(call);
+            
+            call.enqueue(new Callback<DeezerResponse>() {
+                @Override
+                public void onResponse(Call<DeezerResponse> call, Response<DeezerResponse> response) {
+                    if (finished) {
+                        return;
+                    }
+                    recordLatency(call, response);
                     
-                    if (!spiritualSongs.isEmpty()) {
-                        if (callback != null) {
-                            callback.onSpiritualSongsFound(spiritualSongs, allSongs.size(), spiritualSongs.size());
-                        }
-                        Log.d(TAG, "Retry successful: " + spiritualSongs.size() + " spiritual songs");
+                    if (response.isSuccessful() && response.body() != null && response.body().hasData()) {
+                        anySuccessful = true;
+                        int totalFound = response.body().getScannedCount();
+                        filterResponse(response.body(), pageSize, spiritualSongs -> {
+                            queryPlanner.recordYield(plan, totalFound, response.body().getSpiritualSongCount());
+                            onResult(call, totalFound, spiritualSongs);
+                        });
                     } else {
-                        if (callback != null) {
-                            callback.onNoSpiritualSongsFound("No spiritual songs available at the moment");
+                        if (response.isSuccessful()) {
+                            anySuccessful = true;
+                            queryPlanner.recordYield(plan, pageSize, 0);
+                        } else if (firstError == null) {
+                            firstError = "Failed to load trending songs";
                         }
+                        onResult(call, 0, Collections.emptyList());
                     }
-                } else {
+                }
+                
+                @Override
+                public void onFailure(Call<DeezerResponse> call, Throwable t) {
+                    if (finished) {
+                        return;
+                    }
+                    if (firstError == null) {
+                        firstError = "Network error: " + t.getMessage();
+                    }
+                    Log.e(TAG, "Network error loading trending", t);
+                    onResult(call, 0, Collections.emptyList());
+                }
+            });
+        }
+        
+        private void onResult(Call<DeezerResponse> call, int totalFound, List<Song> spiritualSongs) {
+            if (finished) {
+                return;
+            }
+            running.remove(call);
+            
+            if (!spiritualSongs.isEmpty()) {
+                finish();
+                resultCache.put(cacheKey, spiritualSongs, totalFound);
+                if (callback != null) {
+                    callback.onSpiritualSongsFound(spiritualSongs, totalFound, spiritualSongs.size());
+                }
+                Log.d(TAG, "Found " + spiritualSongs.size() + " trending spiritual songs");
+            } else if (!hedged) {
+                // Nothing usable from the first query: send the other one now
+                sendHedge();
+            } else if (running.isEmpty()) {
+                finish();
+                if (anySuccessful) {
+                    resultCache.put(cacheKey, null, 0);
                     if (callback != null) {
-                        callback.onNoSpiritualSongsFound("No spiritual songs available at the moment");
+                        callback.onNoSpiritualSongsFound(NO_TRENDING_MESSAGE);
                     }
+                } else if (callback != null) {
+                    callback.onError(firstError);
                 }
             }
+        }
+        
+        private void finish() {
+            finished = true;
+            mainHandler.removeCallbacks(hedgeTask);
+            for (Call<DeezerResponse> call : running) {
+                // A cancelled loser would have taken at least this long; leaving it out
+                // would let the p95 see only winners, drift down and hedge ever more often
+                recordLatency(call, null);
+                call.cancel();
+            }
+            running.clear();
+            unmeasured.clear();
+            if (callback != null) {
+                callback.onLoading(false);
+            }
+        }
+        
+        /**
+         * @param response Response of the call, or null for a loser still on the network
+         */
+        private void recordLatency(Call<DeezerResponse> call, Response<DeezerResponse> response) {
+            if (!unmeasured.remove(call)) {
+                return;
+            }
+            // A loser still waiting for its permit, or a cache hit, says nothing about Deezer
+            long sentAt = DeezerRequestMerger.getSentAt(call);
+            if (sentAt < 0 || (response != null && response.raw().networkResponse() == null)) {
+                return;
+            }
+            searchLatency.record(SystemClock.elapsedRealtime() - sentAt);
+        }
+    }
+    
+    /**
+     * A mix load: one call per query, all sent at once, each answered from the
+     * result cache (or a warmed snapshot) when it can be, unless refreshing. When every query has
+     * answered, their ranked songs are interleaved. Confined to the main thread,
+     * where Retrofit and filterResponse call back.
+     */
+    private final class MixLoad {
+        private final int limit;
+        private final boolean refresh;
+        private final String mixKey;
+        private final SpiritualSearchCallback callback;
+        private final RequestHandle handle;
+        private final List<SpiritualQueryPlanner.Plan> plans = new ArrayList<>();
+        private final List<List<Song>> results = new ArrayList<>();
+        private int remaining;
+        private int totalFound = 0;
+        private boolean anySuccessful = false;
+        private String lastError;
+        private boolean finished = false;
+        
+        MixLoad(List<String> queries, int limit, boolean refresh, String mixKey, SpiritualSearchCallback callback,
+                RequestHandle handle) {
+            this.limit = limit;
+            this.refresh = refresh;
+            this.mixKey = mixKey;
+            this.callback = callback;
+            this.handle = handle;
+            Set<String> trendingQueries = new HashSet<>(Arrays.asList(SpiritualSongFilter.getSpiritualSearchQueries()));
+            for (String query : queries) {
+                // Trending queries keep learning their yields; other queries (e.g. artists) are sent as they are
+                plans.add(trendingQueries.contains(query)
+                        ? queryPlanner.forTemplate(SpiritualQueryPlanner.Group.TRENDING, query, null)
+                        : SpiritualQueryPlanner.Plan.untracked(query));
+                results.add(null);
+            }
+            remaining = plans.size();
+            // Cancelling the handle cancels the calls in flight
+            handle.onCancel(() -> finished = true);
+        }
+        
+        void start() {
+            if (plans.isEmpty()) {
+                finish();
+                return;
+            }
+            for (int i = 0; i < plans.size() && !finished; i++) {
+                SpiritualQueryPlanner.Plan plan = plans.get(i);
+                String cacheKey = queryCacheKey(plan);
+                int position = i;
+                if (!refresh && deliverFromCache(position, cacheKey)) {
+                    continue;
+                }
+                if (refresh || plan.getGroup() != SpiritualQueryPlanner.Group.TRENDING) {
+                    launch(position, plan, cacheKey);
+                    continue;
+                }
+                seedFromSnapshot(plan, cacheKey,
+                        () -> {
+                            if (!finished && !deliverFromCache(position, cacheKey)) {
+                                launch(position, plan, cacheKey);
+                            }
+                        },
+                        () -> {
+                            if (!finished) {
+                                launch(position, plan, cacheKey);
+                            }
+                        });
+            }
+        }
+        
+        /**
+         * @return true if the query's result was in the result cache and has been taken
+         */
+        private boolean deliverFromCache(int position, String cacheKey) {
+            SpiritualResultCache.Entry cached = resultCache.get(cacheKey);
+            if (cached == null) {
+                return false;
+            }
+            anySuccessful = true;
+            onResult(position, cached.getTotalFound(), cached.getSongs());
+            return true;
+        }
+        
+        private String queryCacheKey(SpiritualQueryPlanner.Plan plan) {
+            // Shared with getTrendingSpiritualSongs for trending queries
+            return plan.getGroup() == SpiritualQueryPlanner.Group.TRENDING
+                    ? SpiritualResultCache.key(KIND_TRENDING, plan.getQuery(), ADAPTIVE_LIMIT, 0)
+                    : SpiritualResultCache.key(KIND_MIX_QUERY, plan.getQuery(), ADAPTIVE_LIMIT, 0);
+        }
+        
+        private void launch(int position, SpiritualQueryPlanner.Plan plan, String cacheKey) {
+            int pageSize = pageSize(plan, ADAPTIVE_LIMIT);
+            Call<DeezerResponse> call = searchCall(RateLimiter.Priority.TRENDING, plan, pageSize, 0);
+            if (!handle.track(call)) {
+                return;
+            }
             
-            @Override
-            public void onFailure(Call<DeezerResponse> call, Throwable t) {
+            call.enqueue(new Callback<DeezerResponse>() {
+                @Override
+                public void onResponse(Call<DeezerResponse> call, Response<DeezerResponse> response) {
+                    if (finished) {
+                        return;
+                    }
+                    if (response.isSuccessful() && response.body() != null && response.body().hasData()) {
+                        anySuccessful = true;
+                        int found = response.body().getScannedCount();
+                        filterResponse(response.body(), pageSize, spiritualSongs -> {
+                            queryPlanner.recordYield(plan, found, response.body().getSpiritualSongCount());
+                            resultCache.put(cacheKey, spiritualSongs, found);
+                            onResult(position, found, spiritualSongs);
+                        });
+                    } else {
+                        if (response.isSuccessful()) {
+                            anySuccessful = true;
+                            queryPlanner.recordYield(plan, pageSize, 0);
+                            resultCache.put(cacheKey, null, 0);
+                        } else {
+                            lastError = "Failed to load songs: " + response.code();
+                        }
+                        onResult(position, 0, Collections.emptyList());
+                    }
+                }
+                
+                @Override
+                public void onFailure(Call<DeezerResponse> call, Throwable t) {
+                    if (finished) {
+                        return;
+                    }
+                    lastError = "Network error: " + t.getMessage();
+                    Log.e(TAG, "Mix query failed: " + plan.getQuery(), t);
+                    onResult(position, 0, Collections.emptyList());
+                }
+            });
+        }
+        
+        private void onResult(int position, int found, List<Song> spiritualSongs) {
+            if (finished) {
+                return;
+            }
+            results.set(position, spiritualSongs);
+            totalFound += found;
+            if (--remaining == 0) {
+                finish();
+            }
+        }
+        
+        private void finish() {
+            finished = true;
+            if (callback != null) {
+                callback.onLoading(false);
+            }
+            List<Song> songs = SongInterleaver.interleave(results, limit);
+            Log.d(TAG, "Mix of " + plans.size() + " queries: " + songs.size() + " spiritual songs");
+            if (!songs.isEmpty()) {
+                resultCache.put(mixKey, songs, totalFound);
                 if (callback != null) {
-                    callback.onNoSpiritualSongsFound("No spiritual songs available at the moment");
+                    callback.onSpiritualSongsFound(songs, totalFound, songs.size());
                 }
-                Log.e(TAG, "Retry failed", t);
+            } else if (anySuccessful || lastError == null) {
+                resultCache.put(mixKey, null, totalFound);
+                if (callback != null) {
+                    callback.onNoSpiritualSongsFound(NO_TRENDING_MESSAGE);
+                }
+            } else if (callback != null) {
+                callback.onError(lastError);
             }
+        }
+    }
+    
+    /**
+     * A search that sends the primary query and the fallback variants together.
+     * At most MAX_PARALLEL_CALLS run at once; spiritual songs are merged by track
+     * id as pages arrive, and once FAN_OUT_TARGET_SONGS are collected (or every
+     * variant has answered) the rest are cancelled and the callback is answered.
+     * Confined to the main thread, where Retrofit and filterResponse call back.
+     */
+    private final class FanOutSearch {
+        private final String query;
+        private final int limit;
+        private final int index;
+        private final String cacheKey;
+        private final SpiritualSearchCallback callback;
+        private final RequestHandle handle;
+        private final int targetSongs;
+        
+        private final List<SpiritualQueryPlanner.Plan> pending = new ArrayList<>();
+        private final List<Call<DeezerResponse>> running = new ArrayList<>();
+        private final Map<Long, Song> merged = new LinkedHashMap<>();
+        private int totalFound = 0;
+        private int answered = 0;
+        private String lastError;
+        private boolean finished = false;
+        
+        FanOutSearch(String query, int limit, int index, String cacheKey, SpiritualSearchCallback callback,
+                     RequestHandle handle) {
+            this.query = query;
+            this.limit = limit;
+            this.index = index;
+            this.cacheKey = cacheKey;
+            this.callback = callback;
+            this.handle = handle;
+            this.targetSongs = limit != ADAPTIVE_LIMIT ? Math.min(limit, FAN_OUT_TARGET_SONGS) : FAN_OUT_TARGET_SONGS;
+            
+            pending.add(SpiritualSongFilter.planEnhancedQuery(query));
+            pending.addAll(queryPlanner.planAll(SpiritualQueryPlanner.Group.FALLBACK, query));
+            // Cancelling the handle cancels the running calls; no further variants are sent
+            handle.onCancel(() -> finished = true);
+        }
+        
+        void start() {
+            while (running.size() < MAX_PARALLEL_CALLS && !pending.isEmpty() && !handle.isCancelled()) {
+                launch(pending.remove(0));
+            }
+        }
+        
+        private void launch(SpiritualQueryPlanner.Plan plan) {
+            boolean primary = plan.getGroup() != SpiritualQueryPlanner.Group.FALLBACK;
+            int pageSize = pageSize(plan, primary ? limit : ADAPTIVE_LIMIT);
+            Call<DeezerResponse> call = searchCall(primary ? RateLimiter.Priority.INTERACTIVE : RateLimiter.Priority.FALLBACK,
+                    plan, pageSize, primary ? index : 0);
+            if (!handle.track(call)) {
+                return;
+            }
+            running.add(call);
+            
+            call.enqueue(new Callback<DeezerResponse>() {
+                @Override
+                public void onResponse(Call<DeezerResponse> call, Response<DeezerResponse> response) {
+                    if (finished) {
+                        return;
+                    }
+                    if (response.isSuccessful() && response.body() != null && response.body().hasData()) {
+                        int found = response.body().getScannedCount();
+                        filterResponse(response.body(), pageSize, spiritualSongs -> {
+                            queryPlanner.recordYield(plan, found, response.body().getSpiritualSongCount());
+                            onPage(call, found, spiritualSongs);
+                        });
+                    } else {
+                        if (response.isSuccessful()) {
+                            queryPlanner.recordYield(plan, pageSize, 0);
+                        } else {
+                            lastError = "Failed to search songs: " + response.code();
+                        }
+                        onPage(call, 0, Collections.emptyList());
+                    }
+                }
+                
+                @Override
+                public void onFailure(Call<DeezerResponse> call, Throwable t) {
+                    if (finished) {
+                        return;
+                    }
+                    lastError = "Network error: " + t.getMessage();
+                    Log.e(TAG, "Fan-out search call failed", t);
+                    onPage(call, 0, Collections.emptyList());
+                }
+            });
+        }
+        
+        private void onPage(Call<DeezerResponse> call, int found, List<Song> spiritualSongs) {
+            if (finished) {
+                return;
+            }
+            running.remove(call);
+            answered++;
+            totalFound += found;
+            for (Song song : spiritualSongs) {
+                if (!merged.containsKey(song.getId())) {
+                    merged.put(song.getId(), song);
+                }
+            }
+            
+            if (merged.size() >= targetSongs || (running.isEmpty() && pending.isEmpty())) {
+                finish();
+            } else {
+                start();
+            }
+        }
+        
+        private void finish() {
+            finished = true;
+            for (Call<DeezerResponse> call : running) {
+                call.cancel();
+            }
+            Log.d(TAG, "Fan-out search: " + merged.size() + " spiritual songs from " + answered
+                    + " calls, " + running.size() + " cancelled");
+            running.clear();
+            
+            if (callback != null) {
+                callback.onLoading(false);
+            }
+            if (merged.isEmpty()) {
+                if (lastError != null && totalFound == 0) {
+                    if (callback != null) {
+                        callback.onError(lastError);
+                    }
+                    return;
+                }
+                resultCache.put(cacheKey, null, totalFound);
+                if (callback != null) {
+                    callback.onNoSpiritualSongsFound(noSpiritualSongsMessage(query));
+                }
+                return;
+            }
+            
+            List<Song> distinctSongs = TrackVariantCollapser.collapse(new ArrayList<>(merged.values()));
+            List<Song> songs = SpiritualSongRanker.createDefault(likedArtistCounts)
+                    .rank(distinctSongs, limit != ADAPTIVE_LIMIT ? limit : distinctSongs.size());
+            resultCache.put(cacheKey, songs, totalFound);
+            if (callback != null) {
+                callback.onSpiritualSongsFound(songs, totalFound, songs.size());
+            }
+        }
+    }
+    
+    /**
+     * Cursor over the filtered results of one search. Only the last
+     * MAX_WINDOW_PAGES pages are kept; when an older page is dropped the
+     * listener is told how many songs fell off the front. Pages that contain no
+     * spiritual songs are skipped automatically, up to MAX_EMPTY_PAGES_IN_A_ROW.
+     * Confined to the main thread, where Retrofit and filterResponse call back.
+     */
+    public final class SearchCursor {
+        private final String query;
+        private final int prefetchDistance;
+        private final SearchCursorListener listener;
+        private final SpiritualQueryPlanner.Plan plan;
+        
+        private final ArrayDeque<List<Song>> window = new ArrayDeque<>();
+        private final Set<Long> windowIds = new HashSet<>();
+        private int windowSize = 0;
+        private int nextIndex = -1;
+        private int emptyPagesInARow = 0;
+        private RequestHandle firstPage;
+        private Call<DeezerResponse> running;
+        private boolean closed = false;
+        
+        SearchCursor(String query, int prefetchDistance, SearchCursorListener listener) {
+            this.query = query;
+            this.prefetchDistance = Math.max(0, prefetchDistance);
+            this.listener = listener;
+            this.plan = SpiritualSongFilter.planEnhancedQuery(query);
+        }
+        
+        /**
+         * Report the furthest position the consumer has shown
+         * @param position Position within getSongs()
+         */
+        public void onPositionVisible(int position) {
+            if (!closed && !isLoading() && hasMore() && windowSize - 1 - position <= prefetchDistance) {
+                fetch(nextIndex);
+            }
+        }
+        
+        /**
+         * Get the songs currently held, oldest page first
+         */
+        public List<Song> getSongs() {
+            List<Song> songs = new ArrayList<>(windowSize);
+            for (List<Song> page : window) {
+                songs.addAll(page);
+            }
+            return songs;
+        }
+        
+        public boolean hasMore() {
+            return nextIndex >= 0;
+        }
+        
+        public boolean isLoading() {
+            return firstPage != null || running != null;
+        }
+        
+        /**
+         * Stop paging and cancel a page in flight; no further callbacks are made
+         */
+        public void close() {
+            closed = true;
+            if (firstPage != null) {
+                firstPage.cancel();
+                firstPage = null;
+            }
+            if (running != null) {
+                running.cancel();
+                running = null;
+            }
+            window.clear();
+            windowIds.clear();
+            windowSize = 0;
+        }
+        
+        /**
+         * Get the first page through search(), so it is shared with the result cache
+         * and falls back to other query variants when the primary one finds nothing
+         */
+        private void fetchFirstPage() {
+            int pageSize = pageSize(plan, ADAPTIVE_LIMIT);
+            RequestHandle handle = new RequestHandle(mainHandler);
+            firstPage = handle;
+            search(query, ADAPTIVE_LIMIT, 0, handle.guard(new SpiritualSearchCallback() {
+                @Override
+                public void onSpiritualSongsFound(List<Song> songs, int totalFound, int filtered) {
+                    firstPage = null;
+                    // Deezer's next link is not kept with cached results; a full page has one
+                    onPage(songs, totalFound >= pageSize ? pageSize : -1);
+                }
+                
+                @Override
+                public void onNoSpiritualSongsFound(String message) {
+                    firstPage = null;
+                    listener.onNoSpiritualSongsFound(message);
+                }
+                
+                @Override
+                public void onError(String error) {
+                    firstPage = null;
+                    listener.onError(error);
+                }
+                
+                @Override
+                public void onLoading(boolean isLoading) {
+                }
+            }), handle);
+        }
+        
+        private void fetch(int index) {
+            int pageSize = pageSize(plan, ADAPTIVE_LIMIT);
+            Call<DeezerResponse> call = searchCall(RateLimiter.Priority.PREFETCH, plan, pageSize, index);
+            // nextIndex is kept until the page arrives, so a failed page is retried on the next scroll
+            running = call;
+            
+            call.enqueue(new Callback<DeezerResponse>() {
+                @Override
+                public void onResponse(Call<DeezerResponse> call, Response<DeezerResponse> response) {
+                    if (closed) {
+                        return;
+                    }
+                    if (!response.isSuccessful() || response.body() == null) {
+                        running = null;
+                        listener.onError("Failed to search songs: " + response.code());
+                        return;
+                    }
+                    DeezerResponse body = response.body();
+                    int found = body.getScannedCount();
+                    int next = parseNextIndex(body.getNext());
+                    if (body.getSongs() == null) {
+                        // An error payload (no "data" key) is not an empty page
+                        running = null;
+                        listener.onError("Failed to search songs: " + response.code());
+                        Log.e(TAG, "Search cursor page failed: error payload");
+                        return;
+                    }
+                    if (!body.hasData()) {
+                        queryPlanner.recordYield(plan, pageSize, 0);
+                        onPage(Collections.emptyList(), next);
+                        return;
+                    }
+                    filterResponse(body, pageSize, spiritualSongs -> {
+                        queryPlanner.recordYield(plan, found, body.getSpiritualSongCount());
+                        onPage(spiritualSongs, next);
+                    });
+                }
+                
+                @Override
+                public void onFailure(Call<DeezerResponse> call, Throwable t) {
+                    if (closed) {
+                        return;
+                    }
+                    running = null;
+                    Log.e(TAG, "Search cursor page failed", t);
+                    listener.onError("Network error: " + t.getMessage());
+                }
+            });
+        }
+        
+        private void onPage(List<Song> spiritualSongs, int next) {
+            if (closed) {
+                return;
+            }
+            running = null;
+            nextIndex = next;
+            
+            // Deezer pages overlap at times; keep one copy per track in the window
+            List<Song> page = new ArrayList<>(spiritualSongs.size());
+            for (Song song : spiritualSongs) {
+                if (windowIds.add(song.getId())) {
+                    page.add(song);
+                }
+            }
+            
+            if (page.isEmpty()) {
+                emptyPagesInARow++;
+                if (hasMore() && emptyPagesInARow < MAX_EMPTY_PAGES_IN_A_ROW) {
+                    fetch(nextIndex);
+                } else if (windowSize == 0) {
+                    listener.onNoSpiritualSongsFound(noSpiritualSongsMessage(query));
+                }
+                return;
+            }
+            emptyPagesInARow = 0;
+            
+            window.addLast(page);
+            windowSize += page.size();
+            listener.onSongsAppended(Collections.unmodifiableList(page));
+            
+            if (window.size() > MAX_WINDOW_PAGES) {
+                List<Song> dropped = window.removeFirst();
+                for (Song song : dropped) {
+                    windowIds.remove(song.getId());
+                }
+                windowSize -= dropped.size();
+                listener.onSongsDropped(dropped.size());
+            }
+        }
+    }
+    
+    /**
+     * Create a spiritual-only search call queued for a rate limit permit by priority; prefetches
+     * get the BACKGROUND deadline, everything else the INTERACTIVE one
+     */
+    private Call<DeezerResponse> searchCall(RateLimiter.Priority priority, SpiritualQueryPlanner.Plan plan,
+                                            int pageSize, int index) {
+        Call<DeezerResponse> call = retrofitClient.getDeezerAPI()
+                .searchSpiritualTracks(plan.getQuery(), pageSize, index, priority);
+        CallType type = priority == RateLimiter.Priority.PREFETCH ? CallType.BACKGROUND : CallType.INTERACTIVE;
+        call.timeout().timeout(getDeadlineMillis(type), TimeUnit.MILLISECONDS);
+        return call;
+    }
+    
+    /**
+     * Get the Deezer page size for a request
+     * @param limit Requested limit, or ADAPTIVE_LIMIT to aim for TARGET_VISIBLE_SONGS
+     *              spiritual songs given the plan's yield so far
+     */
+    private int pageSize(SpiritualQueryPlanner.Plan plan, int limit) {
+        if (limit != ADAPTIVE_LIMIT) {
+            return limit;
+        }
+        int pageSize = queryPlanner.pageSize(plan, TARGET_VISIBLE_SONGS);
+        Log.d(TAG, "Page size " + pageSize + " for \"" + plan.getQuery() + "\"");
+        return pageSize;
+    }
+    
+    /**
+     * Get the index of the next page from DeezerResponse.next
+     * @return Page start, or -1 if there is no next page
+     */
+    private static int parseNextIndex(String next) {
+        if (next == null) {
+            return -1;
+        }
+        HttpUrl url = HttpUrl.parse(next);
+        String index = url != null ? url.queryParameter("index") : null;
+        if (index == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(index);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Answer a request from the result cache
+     * @param emptyMessage Message for a cached request that found no spiritual songs
+     * @return true if the callback was answered
+     */
+    private boolean deliverCached(String cacheKey, String emptyMessage, SpiritualSearchCallback callback) {
+        SpiritualResultCache.Entry cached = resultCache.get(cacheKey);
+        if (cached == null) {
+            return false;
+        }
+        Log.d(TAG, "Result cache hit: " + cacheKey);
+        if (callback != null) {
+            if (cached.isEmpty()) {
+                callback.onNoSpiritualSongsFound(emptyMessage);
+            } else {
+                List<Song> songs = cached.getSongs();
+                callback.onSpiritualSongsFound(songs, cached.getTotalFound(), songs.size());
+            }
+        }
+        return true;
+    }
+    
+    private static String noSpiritualSongsMessage(String query) {
+        return "No spiritual songs found for \"" + query + "\". Try searching for gospel, worship, or christian music.";
+    }
+    
+    /**
+     * Filter a response to its spiritual songs, one copy per song, best ranked first.
+     * When the score cache is enabled, scores persisted for these track ids are
+     * applied first so only unseen tracks run through SpiritualSongFilter, newly
+     * computed scores are stored, and ranking uses the user's liked artists; the
+     * database work happens off the main thread and the listener is called on it.
+     * @param limit Maximum number of songs to pass on
+     */
+    private void filterResponse(DeezerResponse body, int limit, FilterResultListener listener) {
+        if (songDAO == null) {
+            List<Song> distinctSongs = TrackVariantCollapser.collapse(body.getSpiritualSongs());
+            listener.onFiltered(SpiritualSongRanker.createDefault(null).rank(distinctSongs, limit));
+            return;
+        }
+        
+        executorService.execute(() -> {
+            prepareScoreCache();
+            List<Song> spiritualSongs;
+            if (body.isPrefiltered()) {
+                // Classified while decoding, against the id cache seeded from persisted scores
+                Map<Long, SpiritualClassification> computed = body.getNewClassifications();
+                songDAO.saveSpiritualScores(computed, dictionaryHash);
+                spiritualSongs = body.getSpiritualSongs();
+                Log.d(TAG, "Score cache: " + (body.getScannedCount() - computed.size()) + " hits, " + computed.size() + " misses");
+            } else {
+                List<Song> songs = body.getSongs();
+                List<Song> unscored = applyPersistedScores(songs);
+                // Classifies the unscored songs, so save afterwards
+                spiritualSongs = body.getSpiritualSongs();
+                if (!unscored.isEmpty()) {
+                    songDAO.saveSpiritualScores(unscored, dictionaryHash);
+                }
+                Log.d(TAG, "Score cache: " + (songs.size() - unscored.size()) + " hits, " + unscored.size() + " misses");
+            }
+            
+            // Collapse live/remastered/karaoke copies before they cost list rows and cover downloads
+            List<Song> distinctSongs = TrackVariantCollapser.collapse(spiritualSongs);
+            likedArtistCounts = songDAO.getLikedArtistCounts();
+            List<Song> rankedSongs = SpiritualSongRanker.createDefault(likedArtistCounts)
+                    .rank(distinctSongs, limit);
+            mainHandler.post(() -> listener.onFiltered(rankedSongs));
         });
     }
+    
+    /**
+     * Drop persisted scores from other dictionaries and seed SpiritualSongFilter's
+     * id cache with the most recent ones, so the streaming decoder finds them.
+     * Runs again whenever the dictionary fingerprint changes. Executor thread only.
+     */
+    private void prepareScoreCache() {
+        long hash = SpiritualSongFilter.getDictionaryFingerprint();
+        if (staleScoresPruned && hash == dictionaryHash) {
+            return;
+        }
+        dictionaryHash = hash;
+        songDAO.deleteStaleSpiritualScores(hash);
+        SpiritualSongFilter.seedClassifications(songDAO.getRecentSpiritualScores(hash, SEEDED_SCORE_COUNT));
+        staleScoresPruned = true;
+    }
+    
+    /**
+     * Attach persisted classifications to songs that have one
+     * @return Songs that were not found in the score cache
+     */
+    private List<Song> applyPersistedScores(List<Song> songs) {
+        List<Long> ids = new ArrayList<>(songs.size());
+        for (Song song : songs) {
+            if (song.getSpiritualClassification() == null && song.getId() > 0) {
+                ids.add(song.getId());
+            }
+        }
+        
+        Map<Long, SpiritualClassification> persisted = songDAO.getSpiritualScores(ids, dictionaryHash);
+        List<Song> unscored = new ArrayList<>();
+        for (Song song : songs) {
+            if (song.getSpiritualClassification() != null) {
+                continue;
+            }
+            SpiritualClassification classification = persisted.get(song.getId());
+            if (classification != null) {
+                song.setSpiritualClassification(classification);
+            } else {
+                unscored.add(song);
+            }
+        }
+        return unscored;
+    }
 }
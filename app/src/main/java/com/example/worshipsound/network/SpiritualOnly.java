@@ -0,0 +1,18 @@
+package com.example.worshipsound.network;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a DeezerAPI search method whose response is decoded with
+ * SpiritualResponseAdapter: only spiritual tracks are kept, classified while
+ * the JSON streams in. Other methods get the plain Gson decoding.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SpiritualOnly {
+}
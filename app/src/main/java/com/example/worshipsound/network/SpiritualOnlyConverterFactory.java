@@ -0,0 +1,31 @@
+package com.example.worshipsound.network;
+
+import com.example.worshipsound.models.DeezerJson;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Converter for methods annotated with {@link SpiritualOnly}, decoding with
+ * DeezerJson's filtering Gson. Returns no converter for any other method, so
+ * Retrofit falls through to the next (plain Gson) factory; register it first.
+ */
+final class SpiritualOnlyConverterFactory extends Converter.Factory {
+    private final GsonConverterFactory filtering = GsonConverterFactory.create(DeezerJson.getFilteringGson());
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations,
+                                                            Retrofit retrofit) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof SpiritualOnly) {
+                return filtering.responseBodyConverter(type, annotations, retrofit);
+            }
+        }
+        return null;
+    }
+}
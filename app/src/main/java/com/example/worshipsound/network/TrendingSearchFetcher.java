@@ -0,0 +1,58 @@
+package com.example.worshipsound.network;
+
+import com.example.worshipsound.models.DeezerResponse;
+import com.example.worshipsound.utils.RateLimiter;
+import com.example.worshipsound.utils.SpiritualQueryPlanner;
+import com.example.worshipsound.utils.TrendingWarmer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Fetcher of the trending warm-up: each query is sent as a PREFETCH spiritual
+ * search through the app's DeezerAPI (DeezerRequestMerger, so it waits for a
+ * rate limit permit behind interactive calls), sized by the query planner,
+ * and its yield is recorded. Blocks; call from a background thread.
+ */
+public class TrendingSearchFetcher implements TrendingWarmer.Fetcher {
+    private final DeezerAPI api;
+    private final SpiritualQueryPlanner planner;
+    private final int targetSongs;
+    private final long deadlineMillis;
+
+    /**
+     * @param api Deezer service
+     * @param planner Planner that rewrites the query and sizes the page
+     * @param targetSongs Spiritual songs the page should yield
+     * @param deadlineMillis Deadline of each call, including its wait for a permit
+     */
+    public TrendingSearchFetcher(DeezerAPI api, SpiritualQueryPlanner planner, int targetSongs, long deadlineMillis) {
+        this.api = api;
+        this.planner = planner;
+        this.targetSongs = targetSongs;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    @Override
+    public DeezerResponse fetch(String query) throws IOException {
+        SpiritualQueryPlanner.Plan plan = planner.forTemplate(SpiritualQueryPlanner.Group.TRENDING, query, null);
+        Call<DeezerResponse> call = api.searchSpiritualTracks(plan.getQuery(),
+                planner.pageSize(plan, targetSongs), 0, RateLimiter.Priority.PREFETCH);
+        call.timeout().timeout(deadlineMillis, TimeUnit.MILLISECONDS);
+
+        Response<DeezerResponse> response = call.execute();
+        if (!response.isSuccessful()) {
+            throw new IOException("HTTP " + response.code() + " for \"" + plan.getQuery() + "\"");
+        }
+        DeezerResponse body = response.body();
+        // Deezer reports quota and other errors as HTTP 200 with an "error" object and no data
+        if (body == null || body.getSongs() == null) {
+            throw new IOException("No data for \"" + plan.getQuery() + "\"");
+        }
+        planner.recordYield(plan, body.getScannedCount(), body.getSpiritualSongCount());
+        return body;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.worshipsound.network;
+
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.Context;
+import android.util.Log;
+
+import com.example.worshipsound.utils.SpiritualFilterAssets;
+import com.example.worshipsound.utils.TrendingWarmer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic job that warms the trending snapshots (see
+ * SpiritualMusicNetworkManager.warmTrendingSnapshots) while the device is
+ * charging on an unmetered network, so the home feed opens without a live
+ * search and the warm-up costs neither battery nor mobile data.
+ */
+public class TrendingWarmupJobService extends JobService {
+    private static final String TAG = "TrendingWarmupJob";
+    private static final int JOB_ID = 1001;
+    private static final long PERIOD_MS = TimeUnit.HOURS.toMillis(6);
+
+    private volatile boolean stopRequested = false;
+
+    /**
+     * Schedule the warm-up unless it is already scheduled
+     * @param context Any context
+     */
+    public static void schedule(Context context) {
+        JobScheduler scheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (scheduler == null) {
+            Log.w(TAG, "JobScheduler unavailable; trending warm-up disabled");
+            return;
+        }
+        if (scheduler.getPendingJob(JOB_ID) != null) {
+            return;
+        }
+        JobInfo job = new JobInfo.Builder(JOB_ID, new ComponentName(context, TrendingWarmupJobService.class))
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_UNMETERED)
+                .setRequiresCharging(true)
+                .setPeriodic(PERIOD_MS)
+                .setPersisted(true)
+                .build();
+        int result = scheduler.schedule(job);
+        Log.d(TAG, result == JobScheduler.RESULT_SUCCESS ? "Trending warm-up scheduled" : "Trending warm-up not scheduled");
+    }
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        stopRequested = false;
+        // The job may start the process without MainActivity; classify with the bundled dictionary and model
+        SpiritualFilterAssets.install(this);
+        SpiritualMusicNetworkManager manager = SpiritualMusicNetworkManager.getInstance(getApplicationContext());
+        new Thread(() -> {
+            TrendingWarmer.Result result = manager.warmTrendingSnapshots(() -> stopRequested);
+            if (!stopRequested) {
+                // Retry with backoff only if nothing could be fetched; partial runs wait for the next period
+                jobFinished(params, result != null && result.getWarmedCount() == 0 && result.getFailedCount() > 0);
+            }
+        }, TAG).start();
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // Constraints lost (unplugged or off Wi-Fi): finish the current query and stop
+        stopRequested = true;
+        Log.d(TAG, "Trending warm-up stopped");
+        return true;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.worshipsound.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * Keeps SpiritualQueryPlanner's per-template yield counters in SharedPreferences
+ */
+public class QueryYieldStore implements SpiritualQueryPlanner.Store {
+    private static final String PREFS_NAME = "spiritual_query_stats";
+    private static final String SUFFIX_FOUND = "|found";
+    private static final String SUFFIX_FILTERED = "|filtered";
+
+    private final SharedPreferences prefs;
+
+    public QueryYieldStore(Context context) {
+        prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    public long[] read(String key) {
+        if (!prefs.contains(key + SUFFIX_FOUND)) {
+            return null;
+        }
+        return new long[]{
+            prefs.getLong(key + SUFFIX_FOUND, 0),
+            prefs.getLong(key + SUFFIX_FILTERED, 0)
+        };
+    }
+
+    @Override
+    public void write(String key, long totalFound, long filtered) {
+        prefs.edit()
+                .putLong(key + SUFFIX_FOUND, totalFound)
+                .putLong(key + SUFFIX_FILTERED, filtered)
+                .apply();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.worshipsound.utils;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.worshipsound.BuildConfig;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Connects SpiritualSongFilter's data (artist dictionary and Naive Bayes
+ * model) to the app's files and assets. A copy saved under files/ (e.g.
+ * downloaded) takes precedence over the bundled asset, so the data can
+ * change without an app update.
+ */
+public final class SpiritualFilterAssets {
+    private static final String TAG = "SpiritualFilterAssets";
+    public static final String DICTIONARY_FILE = "spiritual_artists.txt";
+    public static final String BAYES_MODEL_FILE = "spiritual_bayes_model.bin";
+
+    private static boolean installed = false;
+
+    private SpiritualFilterAssets() {}
+
+    /**
+     * Use the app's dictionary and model for classification, with the
+     * classifier selected at build time (BuildConfig.SPIRITUAL_CLASSIFIER).
+     * Loading happens on first use.
+     * @param context Any context; the application context is kept
+     */
+    public static synchronized void install(Context context) {
+        if (installed) {
+            return;
+        }
+        Context appContext = context.getApplicationContext();
+        SpiritualArtistIndex.setSource(() ->
+                new InputStreamReader(open(appContext, DICTIONARY_FILE), StandardCharsets.UTF_8));
+        SpiritualBayesModel.setSource(() -> open(appContext, BAYES_MODEL_FILE));
+        SpiritualSongFilter.setClassifierMode(getConfiguredMode());
+        installed = true;
+    }
+
+    /**
+     * Get the classifier mode the app was built with
+     * @return Configured mode, or KEYWORD if the build value is not a known mode
+     */
+    public static SpiritualSongFilter.ClassifierMode getConfiguredMode() {
+        try {
+            return SpiritualSongFilter.ClassifierMode.valueOf(BuildConfig.SPIRITUAL_CLASSIFIER);
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Unknown classifier " + BuildConfig.SPIRITUAL_CLASSIFIER + ", using KEYWORD");
+            return SpiritualSongFilter.ClassifierMode.KEYWORD;
+        }
+    }
+
+    /**
+     * Get the file that overrides a bundled asset when present
+     * @param name Asset name
+     */
+    public static File getOverrideFile(Context context, String name) {
+        return new File(context.getFilesDir(), name);
+    }
+
+    /**
+     * Reload dictionary and model after an override file changed
+     */
+    public static void reload() {
+        SpiritualArtistIndex.reload();
+        SpiritualBayesModel.reload();
+    }
+
+    private static InputStream open(Context context, String name) throws IOException {
+        File override = getOverrideFile(context, name);
+        if (override.isFile()) {
+            Log.d(TAG, "Loading " + name + " from " + override);
+            return new FileInputStream(override);
+        }
+        Log.d(TAG, "Loading bundled " + name);
+        return context.getAssets().open(name);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.worshipsound.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.example.worshipsound.models.DeezerJson;
+import com.example.worshipsound.models.Song;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Keeps TrendingWarmer's per-query snapshots in SharedPreferences
+ */
+public class TrendingSnapshotStore implements TrendingWarmer.Store {
+    private static final String PREFS_NAME = "trending_snapshots";
+    private static final String SUFFIX_SONGS = "|songs";
+    private static final String SUFFIX_FOUND = "|found";
+    private static final String SUFFIX_FETCHED_AT = "|fetchedAt";
+    private static final Type SONG_LIST_TYPE = new TypeToken<List<Song>>() {}.getType();
+
+    private final SharedPreferences prefs;
+
+    public TrendingSnapshotStore(Context context) {
+        prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    public TrendingWarmer.Snapshot read(String query) {
+        String json = prefs.getString(query + SUFFIX_SONGS, null);
+        if (json == null) {
+            return null;
+        }
+        List<Song> songs;
+        try {
+            songs = DeezerJson.getGson().fromJson(json, SONG_LIST_TYPE);
+        } catch (JsonParseException e) {
+            return null;
+        }
+        return new TrendingWarmer.Snapshot(songs,
+                prefs.getInt(query + SUFFIX_FOUND, 0),
+                prefs.getLong(query + SUFFIX_FETCHED_AT, 0));
+    }
+
+    @Override
+    public void write(String query, TrendingWarmer.Snapshot snapshot) {
+        prefs.edit()
+                .putString(query + SUFFIX_SONGS, DeezerJson.getGson().toJson(snapshot.getSongs(), SONG_LIST_TYPE))
+                .putInt(query + SUFFIX_FOUND, snapshot.getTotalFound())
+                .putLong(query + SUFFIX_FETCHED_AT, snapshot.getFetchedAt())
+                .apply();
+    }
+}
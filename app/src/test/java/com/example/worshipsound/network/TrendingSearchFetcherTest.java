@@ -0,0 +1,146 @@
+package com.example.worshipsound.network;
+
+import com.example.worshipsound.models.DeezerJson;
+import com.example.worshipsound.models.Song;
+import com.example.worshipsound.utils.RateLimiter;
+import com.example.worshipsound.utils.SpiritualQueryPlanner;
+import com.example.worshipsound.utils.SpiritualSongFilter;
+import com.example.worshipsound.utils.SpiritualSongRanker;
+import com.example.worshipsound.utils.TrendingWarmer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the trending warm-up with the job's fetcher (DeezerAPI through
+ * DeezerRequestMerger) against a local mock Deezer server
+ */
+public class TrendingSearchFetcherTest {
+
+    private static final String FAILING_QUERY = "bethel music";
+    private static final String ERROR_BODY_QUERY = "hillsong worship";
+    private static final String PAYLOAD = "{"
+            + "\"data\":["
+            + "{\"id\":11,\"title\":\"Amazing Grace\",\"duration\":240,\"preview\":\"http://p/11.mp3\","
+            + "\"artist\":{\"name\":\"Some Choir\"},\"album\":{\"title\":\"Hymns\",\"cover_medium\":\"http://c/7.jpg\"}},"
+            + "{\"id\":12,\"title\":\"Party All Night\",\"duration\":180,\"preview\":\"http://p/12.mp3\","
+            + "\"artist\":{\"name\":\"DJ Nobody\"},\"album\":{\"title\":\"Club Hits\"}},"
+            + "{\"id\":13,\"title\":\"Worship Medley\",\"duration\":300,\"preview\":\"http://p/13.mp3\","
+            + "\"artist\":{\"name\":\"Praise Team\"},\"album\":{\"title\":\"Live Worship\"}}"
+            + "],"
+            + "\"total\":3}";
+
+    private MockWebServer server;
+    private TrendingSearchFetcher fetcher;
+    private final Map<String, TrendingWarmer.Snapshot> snapshots = new HashMap<>();
+    private final TrendingWarmer.Store store = new TrendingWarmer.Store() {
+        @Override
+        public TrendingWarmer.Snapshot read(String query) {
+            return snapshots.get(query);
+        }
+
+        @Override
+        public void write(String query, TrendingWarmer.Snapshot snapshot) {
+            snapshots.put(query, snapshot);
+        }
+    };
+
+    @Before
+    public void setUp() throws IOException {
+        SpiritualSongFilter.clearClassificationCache();
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (FAILING_QUERY.equals(request.getRequestUrl().queryParameter("q"))) {
+                    return new MockResponse().setResponseCode(503);
+                }
+                if (ERROR_BODY_QUERY.equals(request.getRequestUrl().queryParameter("q"))) {
+                    return new MockResponse().setBody(
+                            "{\"error\":{\"type\":\"Exception\",\"message\":\"Quota limit exceeded\",\"code\":4}}");
+                }
+                return new MockResponse().setBody(PAYLOAD);
+            }
+        });
+        server.start();
+
+        // Converters as in RetrofitClient; no disk cache
+        Retrofit retrofit = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient())
+                .addConverterFactory(new SpiritualOnlyConverterFactory())
+                .addConverterFactory(GsonConverterFactory.create(DeezerJson.getGson()))
+                .build();
+        DeezerAPI api = new DeezerRequestMerger(retrofit.create(DeezerAPI.class),
+                new RateLimiter(45, 5000), Runnable::run, null);
+        fetcher = new TrendingSearchFetcher(api, SpiritualQueryPlanner.getInstance(), 25, 10_000);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void warmsEveryTrendingQuery() throws InterruptedException {
+        int queries = SpiritualSongFilter.getSpiritualSearchQueries().length;
+        TrendingWarmer.Snapshot previous = new TrendingWarmer.Snapshot(Collections.emptyList(), 7, 1_000L);
+        snapshots.put(FAILING_QUERY, previous);
+        snapshots.put(ERROR_BODY_QUERY, previous);
+
+        TrendingWarmer.Result result = new TrendingWarmer(fetcher, store,
+                SpiritualSongRanker.createDefault(null)).warm(() -> false);
+
+        assertEquals(queries, server.getRequestCount());
+        assertEquals(queries - 2, result.getWarmedCount());
+        assertEquals(2, result.getFailedCount());
+        assertFalse(result.isComplete());
+
+        // Pages are sized by the planner
+        RecordedRequest first = server.takeRequest();
+        assertEquals("/search", first.getRequestUrl().encodedPath());
+        int pageSize = Integer.parseInt(first.getRequestUrl().queryParameter("limit"));
+        assertTrue(pageSize >= SpiritualQueryPlanner.MIN_PAGE_SIZE && pageSize <= SpiritualQueryPlanner.MAX_PAGE_SIZE);
+
+        // Decoded by the filtering converter: the non-spiritual track never reaches the snapshot
+        TrendingWarmer.Snapshot snapshot = snapshots.get("gospel worship");
+        assertEquals(3, snapshot.getTotalFound());
+        assertTrue(snapshot.getFetchedAt() > 1_000L);
+        assertEquals(2, snapshot.getSongs().size());
+        for (Song song : snapshot.getSongs()) {
+            assertNotEquals(12, song.getId());
+        }
+        // A failed query keeps what it had, as does an HTTP 200 error payload
+        assertSame(previous, snapshots.get(FAILING_QUERY));
+        assertSame(previous, snapshots.get(ERROR_BODY_QUERY));
+    }
+
+    @Test
+    public void stopsBetweenQueries() {
+        AtomicInteger checks = new AtomicInteger();
+        TrendingWarmer.Result result = new TrendingWarmer(fetcher, store,
+                SpiritualSongRanker.createDefault(null)).warm(() -> checks.incrementAndGet() > 2);
+
+        assertTrue(result.isStopped());
+        assertEquals(2, result.getWarmedCount());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(2, snapshots.size());
+    }
+}
@@ -0,0 +1,47 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    api(libs.gson)
+
+    testImplementation(libs.junit)
+}
+
+// Offline trainer for the Naive Bayes classifier; not part of the library
+val training by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += output + compileClasspath + sourceSets.main.get().runtimeClasspath
+}
+
+tasks.register<JavaExec>("trainSpiritualModel") {
+    group = "build"
+    description = "Trains the spiritual Naive Bayes model from labeled CSV and writes the app asset."
+    classpath = training.runtimeClasspath
+    mainClass = "com.example.worshipsound.training.SpiritualBayesTrainer"
+    args(
+        file("src/training/data/spiritual_labels.csv"),
+        rootProject.file("app/src/main/assets/spiritual_bayes_model.bin")
+    )
+}
+
+// Benchmarks read the app's bundled artist dictionary from the classpath
+sourceSets.named("jmh") {
+    resources.srcDir(rootProject.file("app/src/main/assets"))
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    // Report allocation rate (gc.alloc.rate.norm) next to throughput
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+}
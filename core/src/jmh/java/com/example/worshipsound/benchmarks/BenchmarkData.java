@@ -0,0 +1,84 @@
+package com.example.worshipsound.benchmarks;
+
+import com.example.worshipsound.models.DeezerJson;
+import com.example.worshipsound.models.DeezerResponse;
+import com.example.worshipsound.models.Song;
+import com.example.worshipsound.utils.SpiritualArtistIndex;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Builds benchmark inputs from the recorded Deezer search payload.
+ * Larger inputs repeat the recorded tracks with fresh ids so per-id caches
+ * behave as they would on real, distinct tracks.
+ */
+final class BenchmarkData {
+    private static final String SAMPLE_PAYLOAD = "/deezer_search_sample.json";
+    private static final String ARTIST_DICTIONARY = "/spiritual_artists.txt";
+
+    private BenchmarkData() {}
+
+    /**
+     * Point the artist index at the bundled dictionary, as the app does at startup
+     */
+    static void installArtistDictionary() {
+        SpiritualArtistIndex.setSource(() -> open(ARTIST_DICTIONARY));
+    }
+
+    /**
+     * Get a Deezer search payload with the given number of tracks
+     */
+    static String payload(int trackCount) {
+        JsonObject sample;
+        try (Reader reader = open(SAMPLE_PAYLOAD)) {
+            sample = JsonParser.parseReader(reader).getAsJsonObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Missing benchmark payload", e);
+        }
+
+        JsonArray recorded = sample.getAsJsonArray("data");
+        JsonArray tracks = new JsonArray();
+        for (int i = 0; i < trackCount; i++) {
+            JsonObject track = recorded.get(i % recorded.size()).deepCopy().getAsJsonObject();
+            track.addProperty("id", 1_000_000L + i);
+            tracks.add(track);
+        }
+
+        JsonObject payload = new JsonObject();
+        payload.add("data", tracks);
+        payload.addProperty("total", trackCount);
+        for (String key : new String[]{"next", "prev"}) {
+            JsonElement value = sample.get(key);
+            if (value != null) {
+                payload.add(key, value);
+            }
+        }
+        return payload.toString();
+    }
+
+    /**
+     * Get decoded songs for a payload of the given size
+     */
+    static List<Song> songs(int trackCount) {
+        DeezerResponse response = DeezerJson.parseResponse(new StringReader(payload(trackCount)));
+        return response.getSongs();
+    }
+
+    private static Reader open(String resource) throws IOException {
+        InputStream stream = BenchmarkData.class.getResourceAsStream(resource);
+        if (stream == null) {
+            throw new IOException("Resource not found: " + resource);
+        }
+        return new InputStreamReader(stream, StandardCharsets.UTF_8);
+    }
+}
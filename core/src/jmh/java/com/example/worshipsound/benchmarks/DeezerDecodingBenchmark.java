@@ -0,0 +1,56 @@
+package com.example.worshipsound.benchmarks;
+
+import com.example.worshipsound.models.DeezerJson;
+import com.example.worshipsound.models.DeezerResponse;
+import com.example.worshipsound.models.Song;
+import com.example.worshipsound.utils.SpiritualSongFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of decoding recorded Deezer search payloads with the app's Gson setup
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DeezerDecodingBenchmark {
+
+    @Param({"50", "500", "50000"})
+    public int trackCount;
+
+    private String payload;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.installArtistDictionary();
+        payload = BenchmarkData.payload(trackCount);
+    }
+
+    @Benchmark
+    public DeezerResponse decodeSearchResponse() {
+        return DeezerJson.parseResponse(new StringReader(payload));
+    }
+
+    @Benchmark
+    public List<Song> decodeThenFilterCold() {
+        SpiritualSongFilter.clearClassificationCache();
+        return DeezerJson.parseResponse(new StringReader(payload)).getSpiritualSongs();
+    }
+
+    @Benchmark
+    public List<Song> decodeFilteringCold() {
+        SpiritualSongFilter.clearClassificationCache();
+        return DeezerJson.parseFilteredResponse(new StringReader(payload)).getSpiritualSongs();
+    }
+}
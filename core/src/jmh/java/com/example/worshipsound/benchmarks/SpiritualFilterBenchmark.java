@@ -0,0 +1,80 @@
+package com.example.worshipsound.benchmarks;
+
+import com.example.worshipsound.models.Song;
+import com.example.worshipsound.utils.SpiritualSongFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of SpiritualSongFilter on decoded search pages.
+ * "Cold" benchmarks drop memoized classifications first, so every song is
+ * scanned again; "warm" ones measure the memoized path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SpiritualFilterBenchmark {
+
+    @Param({"50", "500", "50000"})
+    public int trackCount;
+
+    private List<Song> songs;
+    private String[] queries;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.installArtistDictionary();
+        songs = BenchmarkData.songs(trackCount);
+
+        // User queries: titles and artists, about half already spiritual
+        queries = new String[trackCount];
+        for (int i = 0; i < trackCount; i++) {
+            Song song = songs.get(i);
+            queries[i] = (i & 1) == 0 ? song.getTitle() : song.getArtistName();
+        }
+    }
+
+    @Benchmark
+    public List<Song> filterSpiritualSongsCold() {
+        resetClassifications();
+        return SpiritualSongFilter.filterSpiritualSongs(songs);
+    }
+
+    @Benchmark
+    public List<Song> filterSpiritualSongsWarm() {
+        return SpiritualSongFilter.filterSpiritualSongs(songs);
+    }
+
+    @Benchmark
+    public void calculateSpiritualScoreCold(Blackhole blackhole) {
+        resetClassifications();
+        for (Song song : songs) {
+            blackhole.consume(SpiritualSongFilter.calculateSpiritualScore(song));
+        }
+    }
+
+    @Benchmark
+    public void enhanceQueryForSpiritual(Blackhole blackhole) {
+        for (String query : queries) {
+            blackhole.consume(SpiritualSongFilter.enhanceQueryForSpiritual(query));
+        }
+    }
+
+    private void resetClassifications() {
+        for (Song song : songs) {
+            song.setSpiritualClassification(null);
+        }
+        SpiritualSongFilter.clearClassificationCache();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.worshipsound.models;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.Reader;
+
+/**
+ * Shared Gson configuration for decoding Deezer API payloads.
+ * Used by RetrofitClient's converters (the filtering instance only for
+ * @SpiritualOnly search methods) and by the benchmarks, so both decode
+ * responses exactly the same way.
+ */
+public final class DeezerJson {
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final Gson FILTERING_GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(SpiritualResponseAdapter.FACTORY)
+            .create();
+
+    private DeezerJson() {}
+
+    /**
+     * Get the Gson instance used for Deezer payloads
+     */
+    public static Gson getGson() {
+        return GSON;
+    }
+
+    /**
+     * Get the Gson instance that drops non-spiritual tracks while decoding
+     * search responses (see SpiritualResponseAdapter)
+     */
+    public static Gson getFilteringGson() {
+        return FILTERING_GSON;
+    }
+
+    /**
+     * Decode a search response
+     * @param json Response body
+     * @return Decoded response
+     */
+    public static DeezerResponse parseResponse(Reader json) {
+        return GSON.fromJson(json, DeezerResponse.class);
+    }
+
+    /**
+     * Decode a search response keeping only spiritual tracks
+     * @param json Response body
+     * @return Decoded response; getScannedCount() reports the unfiltered size
+     */
+    public static DeezerResponse parseFilteredResponse(Reader json) {
+        return FILTERING_GSON.fromJson(json, DeezerResponse.class);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.worshipsound.models;
+
+import com.example.worshipsound.utils.SpiritualClassification;
+import com.example.worshipsound.utils.SpiritualSongFilter;
+import com.google.gson.annotations.SerializedName;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Model class for Deezer API search response
+ */
+public class DeezerResponse {
+    @SerializedName("data")
+    private List<Song> songs;
+
+    @SerializedName("total")
+    private int total;
+
+    @SerializedName("next")
+    private String next;
+
+    @SerializedName("prev")
+    private String prev;
+
+    // Spiritual subset of songs, filtered once on first access
+    private transient List<Song> spiritualSongs;
+
+    // Set by the streaming decoder: songs already holds only spiritual tracks
+    private transient boolean prefiltered = false;
+    private transient int scannedCount = 0;
+    private transient Map<Long, SpiritualClassification> newClassifications;
+
+    // Constructors
+    public DeezerResponse() {}
+
+    // Getters and Setters
+    public List<Song> getSongs() { return songs; }
+    public void setSongs(List<Song> songs) {
+        this.songs = songs;
+        this.spiritualSongs = null;
+        this.prefiltered = false;
+    }
+
+    /**
+     * Store songs that were filtered while decoding
+     * @param spiritual Spiritual tracks of the page
+     * @param scanned Number of tracks the page contained before filtering
+     * @param computed Classifications the decoder had to compute, keyed by id
+     */
+    void setPrefilteredSongs(List<Song> spiritual, int scanned, Map<Long, SpiritualClassification> computed) {
+        this.songs = spiritual;
+        this.spiritualSongs = spiritual;
+        this.prefiltered = true;
+        this.scannedCount = scanned;
+        this.newClassifications = computed;
+    }
+
+    /**
+     * Check if songs were filtered while decoding, in which case getSongs()
+     * only returns spiritual tracks
+     */
+    public boolean isPrefiltered() { return prefiltered; }
+
+    /**
+     * Get the classifications the streaming decoder computed for this page,
+     * spiritual or not, for tracks it found in neither the id cache nor its seed
+     * @return Classifications keyed by Deezer id; empty if the page was not prefiltered
+     */
+    public Map<Long, SpiritualClassification> getNewClassifications() {
+        return newClassifications != null ? newClassifications : Collections.<Long, SpiritualClassification>emptyMap();
+    }
+
+    /**
+     * Get the number of tracks in the page before any filtering
+     * @return Track count as returned by the API
+     */
+    public int getScannedCount() {
+        if (prefiltered) {
+            return scannedCount;
+        }
+        return songs != null ? songs.size() : 0;
+    }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public String getNext() { return next; }
+    public void setNext(String next) { this.next = next; }
+
+    public String getPrev() { return prev; }
+    public void setPrev(String prev) { this.prev = prev; }
+
+    /**
+     * Check if the page contained any tracks (spiritual or not)
+     */
+    public boolean hasData() {
+        return getScannedCount() > 0;
+    }
+
+    /**
+     * Get only spiritual/worship songs from the response.
+     * The list is filtered once and reused by the other spiritual getters.
+     * @return Filtered list containing only spiritual songs
+     */
+    public List<Song> getSpiritualSongs() {
+        if (songs == null || songs.isEmpty()) {
+            return songs;
+        }
+        if (spiritualSongs == null) {
+            spiritualSongs = SpiritualSongFilter.filterSpiritualSongs(songs);
+        }
+        return spiritualSongs;
+    }
+
+    /**
+     * Check if response has spiritual songs
+     * @return true if contains at least one spiritual song
+     */
+    public boolean hasSpiritualData() {
+        if (spiritualSongs != null) {
+            return !spiritualSongs.isEmpty();
+        }
+        if (songs == null) {
+            return false;
+        }
+        // Stop at the first match instead of filtering the whole list
+        for (Song song : songs) {
+            if (SpiritualSongFilter.isSpiritualSong(song)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get count of spiritual songs in response
+     * @return Number of spiritual songs
+     */
+    public int getSpiritualSongCount() {
+        List<Song> spiritualSongs = getSpiritualSongs();
+        return spiritualSongs != null ? spiritualSongs.size() : 0;
+    }
+
+    /**
+     * Filter songs to only include high-quality spiritual content
+     * @param minimumScore Minimum spiritual score (0-100)
+     * @return Filtered list of high-quality spiritual songs
+     */
+    public List<Song> getHighQualitySpiritualSongs(int minimumScore) {
+        List<Song> spiritualSongs = getSpiritualSongs();
+        if (spiritualSongs == null || spiritualSongs.isEmpty()) {
+            return spiritualSongs;
+        }
+
+        List<Song> highQualitySongs = new ArrayList<>();
+        for (Song song : spiritualSongs) {
+            if (SpiritualSongFilter.classify(song).getScore() >= minimumScore) {
+                highQualitySongs.add(song);
+            }
+        }
+        return highQualitySongs;
+    }
+
+    @Override
+    public String toString() {
+        return "DeezerResponse{" +
+                "songs=" + (songs != null ? songs.size() : 0) +
+                ", total=" + total +
+                '}';
+    }
+}
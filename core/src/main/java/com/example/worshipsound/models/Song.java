@@ -1,5 +1,6 @@
 package com.example.worshipsound.models;
 
+import com.example.worshipsound.utils.SpiritualClassification;
 import com.google.gson.annotations.SerializedName;
 
 /**
@@ -28,6 +29,9 @@ public class Song {
     private boolean isLiked = false;
     private String playlistName;
 
+    // Memoized spiritual classification (not part of the API payload)
+    private transient SpiritualClassification spiritualClassification;
+
     // Constructors
     public Song() {}
 
@@ -49,7 +53,10 @@ public class Song {
     public void setId(long id) { this.id = id; }
 
     public String getTitle() { return title; }
-    public void setTitle(String title) { this.title = title; }
+    public void setTitle(String title) {
+        this.title = title;
+        this.spiritualClassification = null;
+    }
 
     public int getDuration() { return duration; }
     public void setDuration(int duration) { this.duration = duration; }
@@ -58,10 +65,16 @@ public class Song {
     public void setPreviewUrl(String previewUrl) { this.previewUrl = previewUrl; }
 
     public Album getAlbum() { return album; }
-    public void setAlbum(Album album) { this.album = album; }
+    public void setAlbum(Album album) {
+        this.album = album;
+        this.spiritualClassification = null;
+    }
 
     public Artist getArtist() { return artist; }
-    public void setArtist(Artist artist) { this.artist = artist; }
+    public void setArtist(Artist artist) {
+        this.artist = artist;
+        this.spiritualClassification = null;
+    }
 
     public boolean isLiked() { return isLiked; }
     public void setLiked(boolean liked) { isLiked = liked; }
@@ -69,6 +82,11 @@ public class Song {
     public String getPlaylistName() { return playlistName; }
     public void setPlaylistName(String playlistName) { this.playlistName = playlistName; }
 
+    public SpiritualClassification getSpiritualClassification() { return spiritualClassification; }
+    public void setSpiritualClassification(SpiritualClassification classification) {
+        this.spiritualClassification = classification;
+    }
+
     // Helper methods
     public String getArtistName() {
         return artist != null ? artist.getName() : "Unknown Artist";
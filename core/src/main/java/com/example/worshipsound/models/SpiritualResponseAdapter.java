@@ -0,0 +1,220 @@
+package com.example.worshipsound.models;
+
+import com.example.worshipsound.utils.SpiritualClassification;
+import com.example.worshipsound.utils.SpiritualSongFilter;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming decoder for DeezerResponse that filters while it parses.
+ * Each track's fields are read into locals and classified on the spot; a
+ * Song (with its Album and Artist) is only built for spiritual tracks, and
+ * fields we don't map are skipped without being materialized.
+ * Classifications it had to compute are reported on the response so they
+ * can be persisted.
+ * Writing is delegated to Gson's reflective adapter.
+ */
+public class SpiritualResponseAdapter extends TypeAdapter<DeezerResponse> {
+
+    /**
+     * Factory registering the adapter for DeezerResponse
+     */
+    public static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (type.getRawType() != DeezerResponse.class) {
+                return null;
+            }
+            TypeAdapter<DeezerResponse> delegate = gson.getDelegateAdapter(this, TypeToken.get(DeezerResponse.class));
+            return (TypeAdapter<T>) new SpiritualResponseAdapter(delegate);
+        }
+    };
+
+    private final TypeAdapter<DeezerResponse> delegate;
+
+    SpiritualResponseAdapter(TypeAdapter<DeezerResponse> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void write(JsonWriter out, DeezerResponse value) throws IOException {
+        delegate.write(out, value);
+    }
+
+    @Override
+    public DeezerResponse read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        DeezerResponse response = new DeezerResponse();
+        List<Song> songs = null;
+        Map<Long, SpiritualClassification> computed = null;
+        int scanned = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "data":
+                    songs = new ArrayList<>();
+                    computed = new HashMap<>();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        scanned++;
+                        Song song = readTrack(in, computed);
+                        if (song != null) {
+                            songs.add(song);
+                        }
+                    }
+                    in.endArray();
+                    break;
+                case "total":
+                    response.setTotal(in.nextInt());
+                    break;
+                case "next":
+                    response.setNext(in.nextString());
+                    break;
+                case "prev":
+                    response.setPrev(in.nextString());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+
+        if (songs != null) {
+            response.setPrefilteredSongs(songs, scanned, computed);
+        }
+        return response;
+    }
+
+    /**
+     * Read one track
+     * @param computed Receives the classification if it was not already cached
+     * @return Song if the track is spiritual, otherwise null
+     */
+    private static Song readTrack(JsonReader in, Map<Long, SpiritualClassification> computed) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return null;
+        }
+
+        long id = 0;
+        String title = null;
+        int duration = 0;
+        String preview = null;
+        boolean hasAlbum = false;
+        String albumTitle = null;
+        String albumCover = null;
+        boolean hasArtist = false;
+        String artistName = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    id = in.nextLong();
+                    break;
+                case "title":
+                    title = in.nextString();
+                    break;
+                case "duration":
+                    duration = in.nextInt();
+                    break;
+                case "preview":
+                    preview = in.nextString();
+                    break;
+                case "album":
+                    hasAlbum = true;
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        String field = in.nextName();
+                        if ("title".equals(field) && in.peek() != JsonToken.NULL) {
+                            albumTitle = in.nextString();
+                        } else if ("cover_medium".equals(field) && in.peek() != JsonToken.NULL) {
+                            albumCover = in.nextString();
+                        } else {
+                            in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                    break;
+                case "artist":
+                    hasArtist = true;
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        if ("name".equals(in.nextName()) && in.peek() != JsonToken.NULL) {
+                            artistName = in.nextString();
+                        } else {
+                            in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+
+        // Cached (or seeded from persisted scores) ids skip classification
+        SpiritualClassification classification = SpiritualSongFilter.getCachedClassification(id);
+        if (classification == null) {
+            // Same fallbacks as Song.getArtistName()/getAlbumTitle(), so the result matches classify(Song)
+            classification = SpiritualSongFilter.classify(id, title,
+                    hasArtist ? artistName : "Unknown Artist",
+                    hasAlbum ? albumTitle : "Unknown Album");
+            if (id > 0) {
+                computed.put(id, classification);
+            }
+        }
+        if (!classification.isSpiritual()) {
+            return null;
+        }
+
+        Song song = new Song();
+        song.setId(id);
+        song.setTitle(title);
+        song.setDuration(duration);
+        song.setPreviewUrl(preview);
+        if (hasAlbum) {
+            Song.Album album = new Song.Album();
+            album.setTitle(albumTitle);
+            album.setCoverMedium(albumCover);
+            song.setAlbum(album);
+        }
+        if (hasArtist) {
+            Song.Artist artist = new Song.Artist();
+            artist.setName(artistName);
+            song.setArtist(artist);
+        }
+        song.setSpiritualClassification(classification);
+        return song;
+    }
+}
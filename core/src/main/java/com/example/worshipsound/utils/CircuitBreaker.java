@@ -0,0 +1,109 @@
+package com.example.worshipsound.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for a remote service. After failureThreshold failures in a
+ * row the circuit opens and requests are refused for openMillis; then a single
+ * probe request is let through, which closes the circuit on success or opens
+ * it again on failure. A probe that never reports back (e.g. cancelled) is
+ * replaced by another after openMillis. Thread-safe.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        // Requests pass; failures are counted
+        CLOSED,
+        // Requests are refused until the open period ends
+        OPEN,
+        // One probe request is in flight
+        HALF_OPEN
+    }
+
+    private final LongSupplier clock;
+    private int failureThreshold;
+    private long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt;
+    private long probeStartedAt;
+
+    /**
+     * @param failureThreshold Failures in a row that open the circuit
+     * @param openMillis How long the circuit stays open before a probe
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.clock = clock;
+        configure(failureThreshold, openMillis);
+    }
+
+    /**
+     * Change the thresholds; the current state is kept
+     */
+    public synchronized void configure(int failureThreshold, long openMillis) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive: " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = Math.max(0, openMillis);
+    }
+
+    /**
+     * Check whether a request may be sent now. Once the open period is over
+     * the first caller is let through as the probe.
+     * @return false while the circuit is open (or a probe is in flight)
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() - openedAt >= openMillis) {
+                    state = State.HALF_OPEN;
+                    probeStartedAt = clock.getAsLong();
+                    return true;
+                }
+                return false;
+            default:
+                if (clock.getAsLong() - probeStartedAt >= openMillis) {
+                    probeStartedAt = clock.getAsLong();
+                    return true;
+                }
+                return false;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    /**
+     * Close the circuit and forget past failures
+     */
+    public synchronized void reset() {
+        recordSuccess();
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.worshipsound.utils;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent request latencies in a ring buffer and reports
+ * percentiles over them, so delays derived from them follow current
+ * network conditions. Thread-safe.
+ */
+public class LatencyTracker {
+    private final long[] samples;
+    private int count = 0;
+    private int next = 0;
+
+    // Sorted copy of the samples, rebuilt lazily after new samples arrive
+    private long[] sorted;
+
+    /**
+     * @param capacity Number of recent samples kept
+     */
+    public LatencyTracker(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        samples = new long[capacity];
+    }
+
+    /**
+     * Record one latency
+     * @param millis Request duration in milliseconds
+     */
+    public synchronized void record(long millis) {
+        samples[next] = Math.max(0, millis);
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        sorted = null;
+    }
+
+    /**
+     * Get a latency percentile (nearest rank)
+     * @param percentile Percentile between 0 and 100, e.g. 95
+     * @param fallback Value returned while no samples have been recorded
+     * @return Latency in milliseconds
+     */
+    public synchronized long getPercentile(double percentile, long fallback) {
+        if (count == 0) {
+            return fallback;
+        }
+        if (sorted == null) {
+            sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.min(count, Math.max(1, rank)) - 1];
+    }
+
+    public synchronized int getSampleCount() {
+        return count;
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.worshipsound.utils;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint network metrics: latency histograms, bytes on the wire,
+ * status codes, cache hits and retries. Counters are lock-free so recording
+ * from OkHttp's threads never blocks a request.
+ */
+public final class NetworkStats {
+
+    // Upper bounds of the latency buckets in milliseconds; the last bucket is open-ended
+    static final long[] LATENCY_BUCKET_BOUNDS = {25, 50, 100, 200, 400, 800, 1600, 3200, 6400};
+
+    private static final NetworkStats INSTANCE = new NetworkStats();
+
+    private final ConcurrentHashMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    NetworkStats() {}
+
+    public static NetworkStats getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Build an endpoint name; numeric path segments (track, album or artist
+     * ids) are folded so e.g. every /track/{id} shares one entry
+     * @param method HTTP method
+     * @param path Encoded URL path
+     */
+    public static String endpointName(String method, String path) {
+        StringBuilder name = new StringBuilder(method).append(' ');
+        String[] segments = path.split("/", -1);
+        for (int i = 1; i < segments.length; i++) {
+            String segment = segments[i];
+            name.append('/').append(!segment.isEmpty() && isNumeric(segment) ? "{id}" : segment);
+        }
+        if (segments.length <= 1) {
+            name.append('/');
+        }
+        return name.toString();
+    }
+
+    /**
+     * Get the counters of an endpoint, creating them on first use
+     */
+    public Endpoint endpoint(String name) {
+        Endpoint endpoint = endpoints.get(name);
+        return endpoint != null ? endpoint : endpoints.computeIfAbsent(name, Endpoint::new);
+    }
+
+    /**
+     * Get all endpoints recorded so far, sorted by name
+     */
+    public Map<String, Endpoint> getEndpoints() {
+        return Collections.unmodifiableMap(new TreeMap<>(endpoints));
+    }
+
+    /**
+     * Drop all recorded metrics
+     */
+    public void reset() {
+        endpoints.clear();
+    }
+
+    /**
+     * Format every endpoint's counters, one line each, for logging
+     */
+    public String dump() {
+        StringBuilder out = new StringBuilder("Network stats");
+        if (endpoints.isEmpty()) {
+            return out.append(": no requests").toString();
+        }
+        for (Endpoint endpoint : getEndpoints().values()) {
+            out.append('\n').append(endpoint);
+        }
+        return out.toString();
+    }
+
+    private static boolean isNumeric(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counters for one endpoint
+     */
+    public static final class Endpoint {
+        private final String name;
+        private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKET_BOUNDS.length + 1);
+        private final AtomicLong maxLatency = new AtomicLong();
+        // Responses by status class: index 1 = 1xx ... 5 = 5xx, 0 = anything else
+        private final AtomicLongArray statusClasses = new AtomicLongArray(6);
+        private final LongAdder responses = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder revalidations = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder bytesIn = new LongAdder();
+        private final LongAdder bytesOut = new LongAdder();
+
+        Endpoint(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Record a completed request
+         * @param latencyMillis Time until the response arrived
+         * @param statusCode HTTP status
+         * @param cacheHit Served from the cache without touching the network
+         * @param revalidated Cached copy confirmed by a conditional request (304)
+         */
+        public void recordResponse(long latencyMillis, int statusCode, boolean cacheHit, boolean revalidated) {
+            responses.increment();
+            recordLatency(latencyMillis);
+            int statusClass = statusCode / 100;
+            statusClasses.incrementAndGet(statusClass >= 1 && statusClass <= 5 ? statusClass : 0);
+            if (cacheHit) {
+                cacheHits.increment();
+            }
+            if (revalidated) {
+                revalidations.increment();
+            }
+        }
+
+        /**
+         * Record a request that failed without a response (I/O error, timeout, cancel)
+         */
+        public void recordFailure(long latencyMillis) {
+            failures.increment();
+            recordLatency(latencyMillis);
+        }
+
+        public void recordRetries(int count) {
+            if (count > 0) {
+                retries.add(count);
+            }
+        }
+
+        public void addBytesIn(long bytes) {
+            if (bytes > 0) {
+                bytesIn.add(bytes);
+            }
+        }
+
+        public void addBytesOut(long bytes) {
+            if (bytes > 0) {
+                bytesOut.add(bytes);
+            }
+        }
+
+        private void recordLatency(long latencyMillis) {
+            long millis = Math.max(0, latencyMillis);
+            int bucket = 0;
+            while (bucket < LATENCY_BUCKET_BOUNDS.length && millis > LATENCY_BUCKET_BOUNDS[bucket]) {
+                bucket++;
+            }
+            latencyBuckets.incrementAndGet(bucket);
+            maxLatency.accumulateAndGet(millis, Math::max);
+        }
+
+        /**
+         * Estimate a latency percentile from the histogram
+         * @param percentile Percentile between 0 and 100
+         * @return Upper bound of the bucket holding the percentile (the maximum
+         *         seen for the open-ended bucket), or 0 without samples
+         */
+        public long getLatencyPercentile(double percentile) {
+            long[] counts = getLatencyHistogram();
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            long seen = 0;
+            for (int i = 0; i < LATENCY_BUCKET_BOUNDS.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(LATENCY_BUCKET_BOUNDS[i], maxLatency.get());
+                }
+            }
+            return maxLatency.get();
+        }
+
+        /**
+         * Get the latency bucket counts; see LATENCY_BUCKET_BOUNDS
+         */
+        public long[] getLatencyHistogram() {
+            long[] counts = new long[latencyBuckets.length()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = latencyBuckets.get(i);
+            }
+            return counts;
+        }
+
+        /**
+         * Get the number of responses in a status class
+         * @param statusClass 1 for 1xx through 5 for 5xx
+         */
+        public long getStatusCount(int statusClass) {
+            return statusClass >= 1 && statusClass <= 5 ? statusClasses.get(statusClass) : 0;
+        }
+
+        public String getName() { return name; }
+        public long getRequestCount() { return responses.sum() + failures.sum(); }
+        public long getResponseCount() { return responses.sum(); }
+        public long getFailureCount() { return failures.sum(); }
+        public long getCacheHitCount() { return cacheHits.sum(); }
+        public long getRevalidationCount() { return revalidations.sum(); }
+        public long getRetryCount() { return retries.sum(); }
+        public long getBytesIn() { return bytesIn.sum(); }
+        public long getBytesOut() { return bytesOut.sum(); }
+        public long getMaxLatency() { return maxLatency.get(); }
+
+        @Override
+        public String toString() {
+            StringBuilder status = new StringBuilder();
+            for (int statusClass = 1; statusClass <= 5; statusClass++) {
+                long count = getStatusCount(statusClass);
+                if (count > 0) {
+                    status.append(' ').append(statusClass).append("xx=").append(count);
+                }
+            }
+            return String.format(Locale.ROOT,
+                    "%s: %d req, %d failed, %d cached, %d revalidated, %d retries,"
+                            + " p50 %dms, p95 %dms, max %dms, in %.1f KiB, out %.1f KiB,%s",
+                    name, getRequestCount(), getFailureCount(), getCacheHitCount(), getRevalidationCount(),
+                    getRetryCount(), getLatencyPercentile(50), getLatencyPercentile(95), getMaxLatency(),
+                    getBytesIn() / 1024.0, getBytesOut() / 1024.0,
+                    status.length() > 0 ? status : " no responses");
+        }
+    }
+}
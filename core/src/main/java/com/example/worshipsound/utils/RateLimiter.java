@@ -0,0 +1,226 @@
+package com.example.worshipsound.utils;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Token bucket that hands out request permits in priority order. The bucket
+ * holds up to maxPermits tokens and refills at maxPermits per periodMillis,
+ * so bursts up to the quota pass at once and sustained traffic stays under it.
+ * Callers that find the bucket empty queue up; a queued caller is served only
+ * when no caller of higher priority (or of equal priority that came earlier)
+ * is waiting. A waiting caller's priority may rise, and a permit that turned
+ * out not to be needed can be given back. Thread-safe.
+ */
+public class RateLimiter {
+
+    /**
+     * Who is asking, most urgent first
+     */
+    public enum Priority {
+        // The user is waiting for a search
+        INTERACTIVE,
+        // Home feed
+        TRENDING,
+        // Query variants tried after the primary query came back empty
+        FALLBACK,
+        // Cursor prefetch and background warm-up
+        PREFETCH
+    }
+
+    // Longest wait between checks of the caller's cancellation and the clock
+    private static final long MAX_WAIT_SLICE_MS = 50;
+
+    /**
+     * A queued caller
+     */
+    private static final class Waiter implements Comparable<Waiter> {
+        final Priority priority;
+        final long sequence;
+
+        Waiter(Priority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final LongSupplier clock;
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+    private long nextSequence = 0;
+    private int maxPermits;
+    private long periodMillis;
+    private double tokens;
+    private long refilledAt;
+
+    // Statistics
+    private long grantedCount = 0;
+    private long delayedCount = 0;
+    private long abandonedCount = 0;
+    private long releasedCount = 0;
+
+    /**
+     * @param maxPermits Requests allowed per period, also the burst size
+     * @param periodMillis Length of the period
+     */
+    public RateLimiter(int maxPermits, long periodMillis) {
+        this(maxPermits, periodMillis, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    RateLimiter(int maxPermits, long periodMillis, LongSupplier clock) {
+        this.clock = clock;
+        this.refilledAt = clock.getAsLong();
+        configure(maxPermits, periodMillis);
+        this.tokens = maxPermits;
+    }
+
+    /**
+     * Change the rate; tokens already in the bucket are kept up to the new size
+     */
+    public synchronized void configure(int maxPermits, long periodMillis) {
+        if (maxPermits <= 0 || periodMillis <= 0) {
+            throw new IllegalArgumentException("Invalid rate: " + maxPermits + " per " + periodMillis + " ms");
+        }
+        refill();
+        this.maxPermits = maxPermits;
+        this.periodMillis = periodMillis;
+        this.tokens = Math.min(tokens, maxPermits);
+        notifyAll();
+    }
+
+    /**
+     * Take a permit if one is free and nobody is queued
+     * @return true if the permit was taken
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (!waiters.isEmpty() || tokens < 1) {
+            return false;
+        }
+        tokens--;
+        grantedCount++;
+        return true;
+    }
+
+    /**
+     * Take a permit, waiting behind callers of higher priority if the bucket is empty
+     * @param priority Caller's priority
+     * @param timeoutMillis Longest wait; 0 or less waits until cancelled
+     * @param cancelled Checked while waiting; true abandons the wait
+     * @return true if the permit was taken, false on timeout or cancellation
+     */
+    public synchronized boolean acquire(Priority priority, long timeoutMillis, BooleanSupplier cancelled)
+            throws InterruptedException {
+        return acquire(() -> priority, timeoutMillis, cancelled);
+    }
+
+    /**
+     * Take a permit for a caller whose priority may rise while it waits, e.g. a
+     * request that a more urgent caller has joined. The priority is read again
+     * at least every MAX_WAIT_SLICE_MS; a less urgent value than the current one
+     * is ignored, and the caller keeps its place among callers of its new priority
+     * by arrival.
+     * @param priority Caller's current priority
+     * @param timeoutMillis Longest wait; 0 or less waits until cancelled
+     * @param cancelled Checked while waiting; true abandons the wait
+     * @return true if the permit was taken, false on timeout or cancellation
+     */
+    public synchronized boolean acquire(Supplier<Priority> priority, long timeoutMillis, BooleanSupplier cancelled)
+            throws InterruptedException {
+        if (tryAcquire()) {
+            return true;
+        }
+        delayedCount++;
+        Waiter self = new Waiter(priority.get(), nextSequence++);
+        waiters.add(self);
+        long deadline = timeoutMillis > 0 ? clock.getAsLong() + timeoutMillis : Long.MAX_VALUE;
+        boolean granted = false;
+        try {
+            while (true) {
+                if (cancelled.getAsBoolean()) {
+                    return false;
+                }
+                Priority current = priority.get();
+                if (current.compareTo(self.priority) < 0) {
+                    waiters.remove(self);
+                    self = new Waiter(current, self.sequence);
+                    waiters.add(self);
+                }
+                refill();
+                if (waiters.peek() == self && tokens >= 1) {
+                    tokens--;
+                    grantedCount++;
+                    granted = true;
+                    return true;
+                }
+                long now = clock.getAsLong();
+                if (now >= deadline) {
+                    return false;
+                }
+                long untilToken = waiters.peek() == self ? millisUntilNextToken() : MAX_WAIT_SLICE_MS;
+                wait(Math.max(1, Math.min(MAX_WAIT_SLICE_MS, Math.min(untilToken, deadline - now))));
+            }
+        } finally {
+            waiters.remove(self);
+            if (!granted) {
+                abandonedCount++;
+            }
+            // The next caller in line may be able to go now
+            notifyAll();
+        }
+    }
+
+    /**
+     * Give back a permit that was not used, e.g. because the response came from
+     * a cache. The bucket never holds more than maxPermits.
+     */
+    public synchronized void release() {
+        refill();
+        tokens = Math.min(maxPermits, tokens + 1);
+        releasedCount++;
+        notifyAll();
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        long elapsed = now - refilledAt;
+        if (elapsed > 0) {
+            tokens = Math.min(maxPermits, tokens + elapsed * (double) maxPermits / periodMillis);
+            refilledAt = now;
+        }
+    }
+
+    private long millisUntilNextToken() {
+        return (long) Math.ceil((1 - tokens) * periodMillis / maxPermits);
+    }
+
+    /**
+     * Get the number of whole permits available now
+     */
+    public synchronized int getAvailablePermits() {
+        refill();
+        return (int) tokens;
+    }
+
+    /**
+     * Get the number of callers waiting for a permit
+     */
+    public synchronized int getQueueLength() {
+        return waiters.size();
+    }
+
+    public synchronized long getGrantedCount() { return grantedCount; }
+    public synchronized long getDelayedCount() { return delayedCount; }
+    public synchronized long getAbandonedCount() { return abandonedCount; }
+    public synchronized long getReleasedCount() { return releasedCount; }
+    public synchronized int getMaxPermits() { return maxPermits; }
+    public synchronized long getPeriodMillis() { return periodMillis; }
+}
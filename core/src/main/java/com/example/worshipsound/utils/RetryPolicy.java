@@ -0,0 +1,58 @@
+package com.example.worshipsound.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Retry limits with jittered exponential backoff. The delay before retry n
+ * (starting at 0) is drawn uniformly from [0, min(maxDelay, baseDelay * 2^n)]
+ * ("full jitter"), so clients that failed together do not retry together.
+ * Settings can be changed while in use.
+ */
+public class RetryPolicy {
+    private volatile int maxRetries;
+    private volatile long baseDelayMillis;
+    private volatile long maxDelayMillis;
+
+    /**
+     * @param maxRetries Retries after the first attempt; 0 disables retrying
+     * @param baseDelayMillis Backoff cap of the first retry
+     * @param maxDelayMillis Upper bound of any backoff
+     */
+    public RetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis) {
+        configure(maxRetries, baseDelayMillis, maxDelayMillis);
+    }
+
+    public void configure(int maxRetries, long baseDelayMillis, long maxDelayMillis) {
+        if (maxRetries < 0 || baseDelayMillis < 0 || maxDelayMillis < baseDelayMillis) {
+            throw new IllegalArgumentException("Invalid retry policy: " + maxRetries + ", "
+                    + baseDelayMillis + ", " + maxDelayMillis);
+        }
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Get the backoff before a retry
+     * @param retry Retry number, 0 for the first retry
+     * @return Delay in milliseconds
+     */
+    public long delayMillis(int retry) {
+        return delayMillis(retry, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    long delayMillis(int retry, DoubleSupplier random) {
+        long cap = maxDelayMillis;
+        // Stop doubling once the cap is reached (also guards against overflow)
+        long ceiling = baseDelayMillis;
+        for (int i = 0; i < retry && ceiling < cap; i++) {
+            ceiling *= 2;
+        }
+        return (long) (random.getAsDouble() * Math.min(cap, ceiling));
+    }
+
+    public int getMaxRetries() { return maxRetries; }
+    public long getBaseDelayMillis() { return baseDelayMillis; }
+    public long getMaxDelayMillis() { return maxDelayMillis; }
+}
@@ -0,0 +1,49 @@
+package com.example.worshipsound.utils;
+
+import com.example.worshipsound.models.Song;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Blends several ranked song lists into one feed by taking their songs in
+ * turn (first of each list, then second of each, ...), so every source is
+ * represented near the top. A track found by several lists is kept once, at
+ * its first turn, and live/remastered copies are collapsed across lists.
+ */
+public final class SongInterleaver {
+
+    private SongInterleaver() {}
+
+    /**
+     * @param feeds Ranked lists, in the order they take turns; null entries are skipped
+     * @param limit Maximum number of songs, or 0 for no limit
+     * @return Blended songs
+     */
+    public static List<Song> interleave(List<List<Song>> feeds, int limit) {
+        List<Song> blended = new ArrayList<>();
+        Set<Long> seenIds = new HashSet<>();
+        int longest = 0;
+        for (List<Song> feed : feeds) {
+            if (feed != null) {
+                longest = Math.max(longest, feed.size());
+            }
+        }
+        for (int rank = 0; rank < longest; rank++) {
+            for (List<Song> feed : feeds) {
+                if (feed == null || rank >= feed.size()) {
+                    continue;
+                }
+                Song song = feed.get(rank);
+                if (seenIds.add(song.getId())) {
+                    blended.add(song);
+                }
+            }
+        }
+
+        List<Song> distinctSongs = TrackVariantCollapser.collapse(blended);
+        return limit > 0 && distinctSongs.size() > limit ? new ArrayList<>(distinctSongs.subList(0, limit)) : distinctSongs;
+    }
+}
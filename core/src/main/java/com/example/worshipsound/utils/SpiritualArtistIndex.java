@@ -0,0 +1,234 @@
+package com.example.worshipsound.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of artists known for spiritual/worship music.
+ * Full names are kept in a hash set and word sequences in a token trie, so a
+ * lookup costs O(length of the artist name) however large the dictionary is.
+ * The dictionary is loaded lazily from a {@link Source} (a bundled asset in the app).
+ */
+public final class SpiritualArtistIndex {
+
+    /**
+     * Supplies the dictionary text: one artist per line, '#' starts a comment
+     * and a leading '=' restricts the entry to full-name matches.
+     */
+    public interface Source {
+        Reader open() throws IOException;
+    }
+
+    private static final SpiritualArtistIndex EMPTY = new SpiritualArtistIndex();
+
+    private static Source source;
+    private static volatile SpiritualArtistIndex instance;
+
+    private final Set<String> fullNames = new HashSet<>();
+    private final TrieNode root = new TrieNode();
+    private int size;
+    private long fingerprint = FNV_OFFSET_BASIS;
+
+    // 64-bit FNV-1a parameters for the dictionary fingerprint
+    static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final class TrieNode {
+        final Map<String, TrieNode> children = new HashMap<>();
+        boolean terminal;
+    }
+
+    private SpiritualArtistIndex() {}
+
+    /**
+     * Set where the dictionary is loaded from. The next lookup reloads it, and
+     * classifications cached while the old dictionary was in use are dropped.
+     * @param newSource Dictionary source
+     */
+    public static void setSource(Source newSource) {
+        synchronized (SpiritualArtistIndex.class) {
+            source = newSource;
+            instance = null;
+        }
+        SpiritualSongFilter.clearClassificationCache();
+    }
+
+    /**
+     * Drop the loaded dictionary so the next lookup reads the source again.
+     * Cached classifications are dropped as well.
+     */
+    public static void reload() {
+        synchronized (SpiritualArtistIndex.class) {
+            instance = null;
+        }
+        SpiritualSongFilter.clearClassificationCache();
+    }
+
+    /**
+     * Get the loaded index, loading it on first use.
+     * Returns an empty index (without remembering it) while no source is set.
+     * @return Artist index, never null
+     */
+    public static SpiritualArtistIndex getInstance() {
+        SpiritualArtistIndex index = instance;
+        if (index != null) {
+            return index;
+        }
+        synchronized (SpiritualArtistIndex.class) {
+            if (instance == null) {
+                if (source == null) {
+                    return EMPTY;
+                }
+                try (Reader reader = source.open()) {
+                    instance = load(reader);
+                } catch (IOException e) {
+                    // Keep working without artist matches rather than failing every lookup
+                    instance = EMPTY;
+                }
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Build an index from dictionary text
+     * @param reader Dictionary text
+     * @return New index
+     * @throws IOException If the text cannot be read
+     */
+    public static SpiritualArtistIndex load(Reader reader) throws IOException {
+        SpiritualArtistIndex index = new SpiritualArtistIndex();
+        BufferedReader lines = reader instanceof BufferedReader
+                ? (BufferedReader) reader : new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            index.addEntry(line);
+        }
+        return index;
+    }
+
+    /**
+     * Check if artist is known for spiritual music.
+     * Matches either the full normalized name, or a dictionary entry appearing
+     * as whole words inside the name ("Hillsong United" matches "hillsong").
+     * @param artistName Artist name as returned by the API
+     * @return true if the artist is in the dictionary
+     */
+    public boolean matches(String artistName) {
+        if (artistName == null || size == 0) {
+            return false;
+        }
+        List<String> tokens = tokenize(artistName);
+        if (tokens.isEmpty()) {
+            return false;
+        }
+        if (fullNames.contains(String.join(" ", tokens))) {
+            return true;
+        }
+        for (int start = 0; start < tokens.size(); start++) {
+            TrieNode node = root;
+            for (int i = start; i < tokens.size(); i++) {
+                node = node.children.get(tokens.get(i));
+                if (node == null) {
+                    break;
+                }
+                if (node.terminal) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get number of artists in the dictionary
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get a hash of the dictionary contents; changes whenever an entry changes
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Mix a string into a 64-bit FNV-1a hash
+     */
+    static long fnv1a(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        // Separator so ["ab", "c"] and ["a", "bc"] hash differently
+        hash ^= '\n';
+        hash *= FNV_PRIME;
+        return hash;
+    }
+
+    private void addEntry(String line) {
+        String entry = line.trim();
+        if (entry.isEmpty() || entry.startsWith("#")) {
+            return;
+        }
+        boolean fullNameOnly = entry.startsWith("=");
+        List<String> tokens = tokenize(fullNameOnly ? entry.substring(1) : entry);
+        if (tokens.isEmpty()) {
+            return;
+        }
+
+        String name = String.join(" ", tokens);
+        fullNames.add(name);
+        fingerprint = fnv1a(fingerprint, fullNameOnly ? "=" + name : name);
+        size++;
+        if (fullNameOnly) {
+            return;
+        }
+
+        TrieNode node = root;
+        for (String token : tokens) {
+            TrieNode child = node.children.get(token);
+            if (child == null) {
+                child = new TrieNode();
+                node.children.put(token, child);
+            }
+            node = child;
+        }
+        node.terminal = true;
+    }
+
+    /**
+     * Split a name into lower-case words; '&' is read as "and"
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+                continue;
+            }
+            if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+            if (c == '&') {
+                tokens.add("and");
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+}
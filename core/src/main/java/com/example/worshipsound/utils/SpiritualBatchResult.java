@@ -0,0 +1,52 @@
+package com.example.worshipsound.utils;
+
+import java.util.BitSet;
+
+/**
+ * Result of classifying a batch of songs: accepted positions as a bit set
+ * and the spiritual score of every position. Immutable.
+ */
+public final class SpiritualBatchResult {
+    private final BitSet accepted;
+    private final int[] scores;
+
+    SpiritualBatchResult(BitSet accepted, int[] scores) {
+        this.accepted = accepted;
+        this.scores = scores;
+    }
+
+    /**
+     * Get a result for an empty batch
+     */
+    static SpiritualBatchResult empty() {
+        return new SpiritualBatchResult(new BitSet(0), new int[0]);
+    }
+
+    /**
+     * Get positions of songs classified as spiritual
+     * @return Copy of the bit set where bit i is set if song i was accepted
+     */
+    public BitSet getAccepted() { return (BitSet) accepted.clone(); }
+
+    /**
+     * Get spiritual scores (0-100) indexed by position
+     * @return Copy of the scores; use getScore(int) to read one without copying
+     */
+    public int[] getScores() { return scores.clone(); }
+
+    public boolean isAccepted(int position) { return accepted.get(position); }
+
+    public int getScore(int position) { return scores[position]; }
+
+    public int size() { return scores.length; }
+
+    public int getAcceptedCount() { return accepted.cardinality(); }
+
+    @Override
+    public String toString() {
+        return "SpiritualBatchResult{" +
+                "size=" + scores.length +
+                ", accepted=" + accepted.cardinality() +
+                '}';
+    }
+}
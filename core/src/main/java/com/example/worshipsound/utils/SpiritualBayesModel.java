@@ -0,0 +1,258 @@
+package com.example.worshipsound.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Naive Bayes model over hashed title/artist/album word features.
+ * Each word is hashed together with its field into one of 2^featureBits
+ * buckets; a bucket holds the log-likelihood ratio of spiritual vs secular.
+ * Scoring walks the strings in place and allocates nothing.
+ *
+ * Binary format (big-endian): magic "WSNB", version, featureBits,
+ * prior log-odds, decision threshold, then one float per bucket.
+ * Models are produced offline by the :core trainSpiritualModel task.
+ */
+public final class SpiritualBayesModel {
+
+    /**
+     * Supplies the binary model
+     */
+    public interface Source {
+        InputStream open() throws IOException;
+    }
+
+    // Feature fields (mixed into the hash so "grace" in a title and in an album differ)
+    public static final int FIELD_TITLE = 0;
+    public static final int FIELD_ARTIST = 1;
+    public static final int FIELD_ALBUM = 2;
+
+    private static final int MAGIC = 0x57534e42; // "WSNB"
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAX_FEATURE_BITS = 20;
+
+    // 32-bit FNV-1a parameters for feature hashing
+    private static final int FNV32_OFFSET_BASIS = 0x811c9dc5;
+    private static final int FNV32_PRIME = 0x01000193;
+
+    private static Source source;
+    private static volatile SpiritualBayesModel instance;
+    private static boolean loadFailed = false;
+
+    private final int featureBits;
+    private final int featureMask;
+    private final float priorLogOdds;
+    private final float threshold;
+    private final float[] weights;
+    private final long fingerprint;
+
+    public SpiritualBayesModel(int featureBits, float priorLogOdds, float threshold, float[] weights) {
+        if (featureBits < 1 || featureBits > MAX_FEATURE_BITS || weights.length != 1 << featureBits) {
+            throw new IllegalArgumentException("Invalid model size: " + featureBits + " bits, " + weights.length + " weights");
+        }
+        this.featureBits = featureBits;
+        this.featureMask = (1 << featureBits) - 1;
+        this.priorLogOdds = priorLogOdds;
+        this.threshold = threshold;
+        this.weights = weights;
+
+        long hash = SpiritualArtistIndex.FNV_OFFSET_BASIS;
+        hash = (hash ^ featureBits) * SpiritualArtistIndex.FNV_PRIME;
+        hash = (hash ^ Float.floatToIntBits(priorLogOdds)) * SpiritualArtistIndex.FNV_PRIME;
+        hash = (hash ^ Float.floatToIntBits(threshold)) * SpiritualArtistIndex.FNV_PRIME;
+        for (float weight : weights) {
+            hash = (hash ^ Float.floatToIntBits(weight)) * SpiritualArtistIndex.FNV_PRIME;
+        }
+        this.fingerprint = hash;
+    }
+
+    /**
+     * Set where the model is loaded from. The next lookup reloads it, and
+     * classifications cached while the old model was in use are dropped.
+     * @param newSource Model source
+     */
+    public static void setSource(Source newSource) {
+        synchronized (SpiritualBayesModel.class) {
+            source = newSource;
+            instance = null;
+            loadFailed = false;
+        }
+        SpiritualSongFilter.clearClassificationCache();
+    }
+
+    /**
+     * Drop the loaded model so the next lookup reads the source again.
+     * Cached classifications are dropped as well.
+     */
+    public static void reload() {
+        synchronized (SpiritualBayesModel.class) {
+            instance = null;
+            loadFailed = false;
+        }
+        SpiritualSongFilter.clearClassificationCache();
+    }
+
+    /**
+     * Get the loaded model, loading it on first use
+     * @return Model, or null if no source is set or the model cannot be read
+     */
+    public static SpiritualBayesModel getInstance() {
+        SpiritualBayesModel model = instance;
+        if (model != null) {
+            return model;
+        }
+        synchronized (SpiritualBayesModel.class) {
+            if (instance == null && source != null && !loadFailed) {
+                try (InputStream in = source.open()) {
+                    instance = read(in);
+                } catch (IOException | IllegalArgumentException e) {
+                    loadFailed = true;
+                }
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Read a model in the binary format
+     * @param in Model bytes
+     * @return Model
+     * @throws IOException If the data is truncated or not a model
+     */
+    public static SpiritualBayesModel read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a spiritual Bayes model");
+        }
+        int version = data.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported model version: " + version);
+        }
+        int featureBits = data.readInt();
+        if (featureBits < 1 || featureBits > MAX_FEATURE_BITS) {
+            throw new IOException("Invalid feature bits: " + featureBits);
+        }
+        float prior = data.readFloat();
+        float threshold = data.readFloat();
+        float[] weights = new float[1 << featureBits];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = data.readFloat();
+        }
+        return new SpiritualBayesModel(featureBits, prior, threshold, weights);
+    }
+
+    /**
+     * Write the model in the binary format
+     * @param out Destination; flushed but not closed
+     * @throws IOException If writing fails
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(featureBits);
+        data.writeFloat(priorLogOdds);
+        data.writeFloat(threshold);
+        for (float weight : weights) {
+            data.writeFloat(weight);
+        }
+        data.flush();
+    }
+
+    /**
+     * Log-odds contribution of one field's words
+     * @param text Field text
+     * @param field One of the FIELD_ constants
+     * @return Sum of the word weights (0 for null or empty text)
+     */
+    public float scoreField(String text, int field) {
+        if (text == null) {
+            return 0f;
+        }
+        float sum = 0f;
+        int hash = 0;
+        boolean inWord = false;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (!inWord) {
+                    hash = startFeature(field);
+                    inWord = true;
+                }
+                hash = updateFeature(hash, Character.toLowerCase(c));
+            } else if (inWord) {
+                sum += weights[hash & featureMask];
+                inWord = false;
+            }
+        }
+        if (inWord) {
+            sum += weights[hash & featureMask];
+        }
+        return sum;
+    }
+
+    /**
+     * Get the prior log-odds of a song being spiritual
+     */
+    public float getPriorLogOdds() { return priorLogOdds; }
+
+    /**
+     * Get the log-odds at or above which a song is classified spiritual
+     */
+    public float getThreshold() { return threshold; }
+
+    public int getFeatureBits() { return featureBits; }
+
+    /**
+     * Get a hash of the model parameters
+     */
+    public long getFingerprint() { return fingerprint; }
+
+    /**
+     * Hash every word of a field to its bucket (used by the offline trainer)
+     * @param text Field text
+     * @param field One of the FIELD_ constants
+     * @param featureBits Model size
+     * @param buckets Output buffer, at least as long as the number of words
+     * @return Number of buckets written
+     */
+    public static int featureBuckets(String text, int field, int featureBits, int[] buckets) {
+        if (text == null) {
+            return 0;
+        }
+        int mask = (1 << featureBits) - 1;
+        int count = 0;
+        int hash = 0;
+        boolean inWord = false;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (!inWord) {
+                    hash = startFeature(field);
+                    inWord = true;
+                }
+                hash = updateFeature(hash, Character.toLowerCase(c));
+            } else if (inWord) {
+                buckets[count++] = hash & mask;
+                inWord = false;
+            }
+        }
+        if (inWord) {
+            buckets[count++] = hash & mask;
+        }
+        return count;
+    }
+
+    private static int startFeature(int field) {
+        return (FNV32_OFFSET_BASIS ^ (field + 1)) * FNV32_PRIME;
+    }
+
+    private static int updateFeature(int hash, char c) {
+        return (hash ^ c) * FNV32_PRIME;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.worshipsound.utils;
+
+/**
+ * Immutable result of classifying one song: whether it is spiritual,
+ * its spiritual score and which fields matched.
+ */
+public final class SpiritualClassification {
+
+    // Matched field flags
+    public static final int FIELD_TITLE = 1;
+    public static final int FIELD_ARTIST = 1 << 1;
+    public static final int FIELD_ALBUM = 1 << 2;
+
+    static final SpiritualClassification NOT_SPIRITUAL = new SpiritualClassification(false, 0, 0);
+
+    private final boolean spiritual;
+    private final int score;
+    private final int matchedFields;
+
+    public SpiritualClassification(boolean spiritual, int score, int matchedFields) {
+        this.spiritual = spiritual;
+        this.score = score;
+        this.matchedFields = matchedFields;
+    }
+
+    public boolean isSpiritual() { return spiritual; }
+
+    public int getScore() { return score; }
+
+    public int getMatchedFields() { return matchedFields; }
+
+    public boolean matchedTitle() { return (matchedFields & FIELD_TITLE) != 0; }
+
+    public boolean matchedArtist() { return (matchedFields & FIELD_ARTIST) != 0; }
+
+    public boolean matchedAlbum() { return (matchedFields & FIELD_ALBUM) != 0; }
+
+    @Override
+    public String toString() {
+        return "SpiritualClassification{" +
+                "spiritual=" + spiritual +
+                ", score=" + score +
+                ", matchedFields=" + matchedFields +
+                '}';
+    }
+}
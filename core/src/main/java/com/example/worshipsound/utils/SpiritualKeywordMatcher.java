@@ -0,0 +1,224 @@
+package com.example.worshipsound.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over the spiritual keyword and album tables.
+ * Built once, then every text is matched in a single linear pass regardless
+ * of how many patterns the tables contain.
+ */
+final class SpiritualKeywordMatcher {
+
+    // Pattern categories (a pattern may belong to several tables)
+    static final int CATEGORY_KEYWORD = 1;
+    static final int CATEGORY_ALBUM = 1 << 1;
+
+    // Characters outside this range never appear in patterns and reset to the root
+    private static final int ALPHABET_LIMIT = 128;
+
+    private final int[] charClass;      // char -> column in the transition table, -1 if unused
+    private final int alphabetSize;
+    private final int[] transitions;    // state * alphabetSize + column -> next state
+    private final int[][] outputs;      // state -> ids of patterns ending here (including suffix matches)
+    private final int[] patternCategories;
+    private final String[] patterns;
+
+    /**
+     * Result of scanning one text: how many distinct patterns of each table matched
+     */
+    static final class Result {
+        static final Result EMPTY = new Result(0, 0);
+
+        final int keywordCount;
+        final int albumCount;
+
+        Result(int keywordCount, int albumCount) {
+            this.keywordCount = keywordCount;
+            this.albumCount = albumCount;
+        }
+
+        boolean hasKeyword() { return keywordCount > 0; }
+        boolean hasAlbum() { return albumCount > 0; }
+    }
+
+    SpiritualKeywordMatcher(String[] keywords, String[] albums) {
+        // Merge the tables so a word shared by several tables is a single pattern
+        Map<String, Integer> merged = new LinkedHashMap<>();
+        addPatterns(merged, keywords, CATEGORY_KEYWORD);
+        addPatterns(merged, albums, CATEGORY_ALBUM);
+
+        patterns = merged.keySet().toArray(new String[0]);
+        patternCategories = new int[patterns.length];
+        int p = 0;
+        for (int category : merged.values()) {
+            patternCategories[p++] = category;
+        }
+
+        // Compact alphabet: only characters that occur in some pattern get a column
+        charClass = new int[ALPHABET_LIMIT];
+        Arrays.fill(charClass, -1);
+        int columns = 0;
+        for (String pattern : patterns) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c >= ALPHABET_LIMIT) {
+                    throw new IllegalArgumentException("Non-ASCII pattern: " + pattern);
+                }
+                if (charClass[c] < 0) {
+                    charClass[c] = columns++;
+                }
+            }
+        }
+        alphabetSize = Math.max(columns, 1);
+
+        // Build the trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> terminal = new ArrayList<>();
+        trie.add(newRow());
+        terminal.add(new ArrayList<>());
+        for (int id = 0; id < patterns.length; id++) {
+            String pattern = patterns[id];
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int column = charClass[pattern.charAt(i)];
+                int next = trie.get(state)[column];
+                if (next < 0) {
+                    next = trie.size();
+                    trie.get(state)[column] = next;
+                    trie.add(newRow());
+                    terminal.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            terminal.get(state).add(id);
+        }
+
+        // Breadth-first pass: resolve failure links into a full transition table
+        int stateCount = trie.size();
+        transitions = new int[stateCount * alphabetSize];
+        outputs = new int[stateCount][];
+        int[] failure = new int[stateCount];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        outputs[0] = new int[0];
+        for (int column = 0; column < alphabetSize; column++) {
+            int child = trie.get(0)[column];
+            if (child < 0) {
+                transitions[column] = 0;
+            } else {
+                transitions[column] = child;
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = mergeOutputs(terminal.get(state), outputs[failure[state]]);
+            for (int column = 0; column < alphabetSize; column++) {
+                int child = trie.get(state)[column];
+                int fallback = transitions[failure[state] * alphabetSize + column];
+                if (child < 0) {
+                    transitions[state * alphabetSize + column] = fallback;
+                } else {
+                    transitions[state * alphabetSize + column] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Scan text once, counting distinct matched patterns per table.
+     * Matching is case-insensitive and does not allocate a lower-cased copy.
+     * @param text Text to scan
+     * @return Match counts, never null
+     */
+    Result scan(String text) {
+        if (text == null || text.isEmpty()) {
+            return Result.EMPTY;
+        }
+
+        long[] seen = null;
+        int keywordCount = 0;
+        int albumCount = 0;
+        int state = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int column = c < ALPHABET_LIMIT ? charClass[c] : -1;
+            if (column < 0) {
+                state = 0;
+                continue;
+            }
+            state = transitions[state * alphabetSize + column];
+
+            int[] matched = outputs[state];
+            for (int id : matched) {
+                if (seen == null) {
+                    seen = new long[(patterns.length + 63) >>> 6];
+                }
+                long bit = 1L << id;
+                if ((seen[id >>> 6] & bit) != 0) {
+                    continue;
+                }
+                seen[id >>> 6] |= bit;
+
+                int category = patternCategories[id];
+                if ((category & CATEGORY_KEYWORD) != 0) keywordCount++;
+                if ((category & CATEGORY_ALBUM) != 0) albumCount++;
+            }
+        }
+
+        if (seen == null) {
+            return Result.EMPTY;
+        }
+        return new Result(keywordCount, albumCount);
+    }
+
+    /**
+     * Get number of distinct patterns in the automaton
+     */
+    int getPatternCount() {
+        return patterns.length;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static void addPatterns(Map<String, Integer> merged, String[] table, int category) {
+        if (table == null) {
+            return;
+        }
+        for (String entry : table) {
+            if (entry == null || entry.isEmpty()) {
+                continue;
+            }
+            String pattern = entry.toLowerCase(Locale.ROOT);
+            Integer existing = merged.get(pattern);
+            merged.put(pattern, existing == null ? category : existing | category);
+        }
+    }
+
+    private static int[] mergeOutputs(List<Integer> own, int[] inherited) {
+        if (own.isEmpty()) {
+            return inherited;
+        }
+        int[] merged = new int[own.size() + inherited.length];
+        for (int i = 0; i < own.size(); i++) {
+            merged[i] = own.get(i);
+        }
+        System.arraycopy(inherited, 0, merged, own.size(), inherited.length);
+        return merged;
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.worshipsound.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chooses Deezer query variants by their filter yield: the share of
+ * returned tracks that pass SpiritualSongFilter. Each group holds
+ * templates where "{q}" stands for the user's query; the planner picks
+ * the template with the best smoothed yield so far, so fewer requests
+ * are needed per spiritual song. Untried templates start at an
+ * optimistic prior and therefore get tried before being ruled out.
+ * The same yields size Deezer pages, see pageSize().
+ */
+public final class SpiritualQueryPlanner {
+
+    /**
+     * Persists yield counters between app runs
+     */
+    public interface Store {
+        /**
+         * @return {totalFound, filtered} for the key, or null if never recorded
+         */
+        long[] read(String key);
+        void write(String key, long totalFound, long filtered);
+    }
+
+    /**
+     * Where a query is used; each group learns its own yields
+     */
+    public enum Group {
+        // Appended to a user query without spiritual terms
+        ENHANCE(new String[]{
+            "{q} worship christian gospel spiritual",
+            "{q} worship",
+            "{q} gospel",
+            "{q} christian",
+            "{q} praise worship"
+        }),
+        // Retried when a user query yields no spiritual songs
+        FALLBACK(new String[]{
+            "gospel {q}",
+            "worship {q}",
+            "christian {q}",
+            "{q} praise",
+            "{q} hymn"
+        }),
+        // Standalone queries for trending songs
+        TRENDING(SpiritualSongFilter.getSpiritualSearchQueries());
+
+        private final String[] templates;
+
+        Group(String[] templates) {
+            this.templates = templates;
+        }
+
+        public String[] getTemplates() {
+            return templates.clone();
+        }
+    }
+
+    /**
+     * A planned query and the template it came from
+     */
+    public static final class Plan {
+        private final Group group;
+        private final String template;
+        private final String query;
+
+        Plan(Group group, String template, String query) {
+            this.group = group;
+            this.template = template;
+            this.query = query;
+        }
+
+        /**
+         * Plan for a query that did not come from a template; its yield is not recorded
+         */
+        public static Plan untracked(String query) {
+            return new Plan(null, null, query);
+        }
+
+        public String getQuery() { return query; }
+        public String getTemplate() { return template; }
+        public Group getGroup() { return group; }
+    }
+
+    private static final String PLACEHOLDER = "{q}";
+
+    // Smoothing: an untried template counts as PRIOR_WEIGHT tracks at PRIOR_YIELD
+    private static final double PRIOR_YIELD = 0.5;
+    private static final double PRIOR_WEIGHT = 20;
+
+    // Counters are halved past this many tracks so recent results dominate
+    private static final long DECAY_THRESHOLD = 5000;
+
+    // Page sizes suggested by pageSize(); Deezer returns at most 100 tracks per page
+    public static final int MIN_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static SpiritualQueryPlanner instance;
+
+    // key -> {totalFound, filtered}
+    private final Map<String, long[]> stats = new HashMap<>();
+    private Store store;
+
+    // Queries that already had spiritual terms (untracked plans), pooled and kept in memory only
+    private final long[] untrackedCounts = new long[2];
+
+    private SpiritualQueryPlanner() {}
+
+    public static synchronized SpiritualQueryPlanner getInstance() {
+        if (instance == null) {
+            instance = new SpiritualQueryPlanner();
+        }
+        return instance;
+    }
+
+    /**
+     * Persist yields through the given store. Counters are read back from it on next use.
+     * @param newStore Yield store, or null to keep yields in memory only
+     */
+    public synchronized void setStore(Store newStore) {
+        store = newStore;
+        stats.clear();
+        Arrays.fill(untrackedCounts, 0);
+    }
+
+    /**
+     * Plan the best-yielding variant of a query
+     * @param group Template group
+     * @param query User query substituted for "{q}"
+     */
+    public Plan plan(Group group, String query) {
+        return plan(group, query, null);
+    }
+
+    /**
+     * Plan the best-yielding variant of a query, skipping one template
+     * @param group Template group
+     * @param query User query substituted for "{q}"
+     * @param excludedTemplate Template already tried, or null
+     */
+    public synchronized Plan plan(Group group, String query, String excludedTemplate) {
+        String best = null;
+        double bestYield = -1;
+        for (String template : group.templates) {
+            if (template.equals(excludedTemplate)) {
+                continue;
+            }
+            // Strictly better only, so ties keep the earlier (default) template
+            double yield = getYield(group, template);
+            if (yield > bestYield) {
+                best = template;
+                bestYield = yield;
+            }
+        }
+        if (best == null) {
+            best = group.templates[0];
+        }
+        return forTemplate(group, best, query);
+    }
+
+    /**
+     * Plan every variant of a query, best historical yield first
+     * @param group Template group
+     * @param query User query substituted for "{q}"
+     */
+    public synchronized List<Plan> planAll(Group group, String query) {
+        List<String> templates = new ArrayList<>(Arrays.asList(group.templates));
+        Map<String, Double> yields = new HashMap<>();
+        for (String template : templates) {
+            yields.put(template, getYield(group, template));
+        }
+        // List.sort is stable, so equal yields keep the declared order
+        templates.sort((a, b) -> Double.compare(yields.get(b), yields.get(a)));
+
+        List<Plan> plans = new ArrayList<>(templates.size());
+        for (String template : templates) {
+            plans.add(forTemplate(group, template, query));
+        }
+        return plans;
+    }
+
+    /**
+     * Plan a specific template, e.g. one picked at random for variety
+     * @param group Template group
+     * @param template One of the group's templates
+     * @param query User query substituted for "{q}"
+     */
+    public Plan forTemplate(Group group, String template, String query) {
+        return new Plan(group, template, template.replace(PLACEHOLDER, query == null ? "" : query));
+    }
+
+    /**
+     * Record how a planned query performed
+     * @param plan Plan the request was made with
+     * @param totalFound Tracks returned by Deezer
+     * @param filtered Tracks that passed the spiritual filter
+     */
+    public synchronized void recordYield(Plan plan, int totalFound, int filtered) {
+        if (plan == null || totalFound <= 0) {
+            return;
+        }
+        if (plan.template == null) {
+            add(untrackedCounts, totalFound, filtered);
+            return;
+        }
+        String key = key(plan.group, plan.template);
+        long[] counts = counts(key);
+        add(counts, totalFound, filtered);
+        if (store != null) {
+            store.write(key, counts[0], counts[1]);
+        }
+    }
+
+    /**
+     * Get the smoothed yield a plan's query can be expected to have
+     * @return Template yield, or the pooled yield of untracked queries
+     */
+    public synchronized double getYield(Plan plan) {
+        return plan.template != null ? getYield(plan.group, plan.template) : smoothedYield(untrackedCounts);
+    }
+
+    /**
+     * Suggest a page size that should yield about targetSongs spiritual songs
+     * in one round trip, given the plan's yield so far
+     * @param plan Plan the request will be made with
+     * @param targetSongs Spiritual songs wanted per page
+     * @return Page size between MIN_PAGE_SIZE and MAX_PAGE_SIZE
+     */
+    public int pageSize(Plan plan, int targetSongs) {
+        double yield = Math.max(getYield(plan), 1.0 / MAX_PAGE_SIZE);
+        long size = (long) Math.ceil(targetSongs / yield);
+        return (int) Math.max(MIN_PAGE_SIZE, Math.min(MAX_PAGE_SIZE, size));
+    }
+
+    /**
+     * Get the smoothed yield of a template (PRIOR_YIELD when never tried)
+     */
+    public synchronized double getYield(Group group, String template) {
+        return smoothedYield(counts(key(group, template)));
+    }
+
+    private static double smoothedYield(long[] counts) {
+        return (counts[1] + PRIOR_YIELD * PRIOR_WEIGHT) / (counts[0] + PRIOR_WEIGHT);
+    }
+
+    private static void add(long[] counts, int totalFound, int filtered) {
+        counts[0] += totalFound;
+        counts[1] += Math.min(filtered, totalFound);
+        if (counts[0] > DECAY_THRESHOLD) {
+            counts[0] /= 2;
+            counts[1] /= 2;
+        }
+    }
+
+    private long[] counts(String key) {
+        long[] counts = stats.get(key);
+        if (counts == null) {
+            long[] stored = store != null ? store.read(key) : null;
+            counts = stored != null && stored.length == 2 ? stored.clone() : new long[2];
+            stats.put(key, counts);
+        }
+        return counts;
+    }
+
+    private static String key(Group group, String template) {
+        return group.name() + ":" + template;
+    }
+}
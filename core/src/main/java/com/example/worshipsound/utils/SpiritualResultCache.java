@@ -0,0 +1,144 @@
+package com.example.worshipsound.utils;
+
+import com.example.worshipsound.models.Song;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * LRU cache of already filtered and ranked search results with a time to
+ * live. Queries that produced no spiritual songs are cached as empty
+ * entries so they are not re-run either. Thread-safe.
+ */
+public class SpiritualResultCache {
+
+    /**
+     * A cached result
+     */
+    public static final class Entry {
+        private final List<Song> songs;
+        private final int totalFound;
+        private final long expiresAt;
+
+        Entry(List<Song> songs, int totalFound, long expiresAt) {
+            this.songs = songs;
+            this.totalFound = totalFound;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Get a copy of the cached songs (empty for a negative entry)
+         */
+        public List<Song> getSongs() { return new ArrayList<>(songs); }
+        public int getTotalFound() { return totalFound; }
+        public boolean isEmpty() { return songs.isEmpty(); }
+    }
+
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private volatile long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+
+    // Statistics
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * @param maxEntries Entries kept before the least recently used is evicted
+     * @param ttlMillis How long an entry stays valid
+     */
+    public SpiritualResultCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    SpiritualResultCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SpiritualResultCache.Entry> eldest) {
+                if (size() > SpiritualResultCache.this.maxEntries) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Build a cache key; queries differing only in case or spacing share a key
+     * @param kind Request kind, e.g. "search" or "trending"
+     * @param query Query text
+     * @param limit Page size
+     * @param index Page start
+     */
+    public static String key(String kind, String query, int limit, int index) {
+        String normalized = query == null ? "" : query.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        return kind + '|' + normalized + '|' + limit + '|' + index;
+    }
+
+    /**
+     * Look up a live entry
+     * @return Entry, or null on a miss (absent or expired)
+     */
+    public synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt - clock.getAsLong() <= 0) {
+            entries.remove(key);
+            evictionCount++;
+            entry = null;
+        }
+        if (entry == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return entry;
+    }
+
+    /**
+     * Cache a result
+     * @param songs Filtered songs; an empty list records a negative result
+     * @param totalFound Tracks the request returned before filtering
+     */
+    public synchronized void put(String key, List<Song> songs, int totalFound) {
+        List<Song> copy = songs == null || songs.isEmpty()
+                ? Collections.<Song>emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(songs));
+        entries.put(key, new Entry(copy, totalFound, clock.getAsLong() + ttlMillis));
+    }
+
+    /**
+     * Change the time to live of entries added from now on
+     */
+    public void setTtlMillis(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    public long getTtlMillis() { return ttlMillis; }
+
+    /**
+     * Drop all entries (statistics are kept)
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getHitCount() { return hitCount; }
+    public synchronized long getMissCount() { return missCount; }
+
+    /**
+     * Get the number of entries dropped for capacity or because they expired
+     */
+    public synchronized long getEvictionCount() { return evictionCount; }
+}
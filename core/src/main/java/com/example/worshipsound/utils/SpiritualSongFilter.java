@@ -0,0 +1,504 @@
+package com.example.worshipsound.utils;
+
+import com.example.worshipsound.models.DeezerResponse;
+import com.example.worshipsound.models.Song;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Utility class for filtering spiritual/worship songs from API responses
+ */
+public class SpiritualSongFilter {
+    private static final String TAG = "SpiritualSongFilter";
+    
+    // Keywords that indicate spiritual/worship music
+    private static final String[] SPIRITUAL_KEYWORDS = {
+        // Primary spiritual terms
+        "gospel", "worship", "christian", "spiritual", "praise", "hymn", 
+        "jesus", "christ", "god", "lord", "holy", "church", "prayer", 
+        "blessed", "faith", "salvation", "hallelujah", "alleluia", "amen",
+        
+        // Religious concepts
+        "divine", "sacred", "sanctuary", "temple", "grace", "mercy", 
+        "forgiveness", "redemption", "resurrection", "cross", "heaven",
+        "angel", "miracle", "glory", "eternal", "spirit", "soul",
+        
+        // Worship related
+        "sing", "rejoice", "celebrate", "proclaim", "testify", "witness",
+        "fellowship", "congregation", "ministry", "pastor", "priest",
+        
+        // Indonesian spiritual terms
+        "rohani", "pujian", "ibadah", "kristiani", "kristen", "yesus",
+        "tuhan", "doa", "gereja", "injil", "kasih", "iman", "berkat"
+    };
+    
+    // Albums/collections that are typically spiritual
+    private static final String[] SPIRITUAL_ALBUMS = {
+        "worship", "praise", "gospel", "hymn", "spiritual", "christian",
+        "church", "faith", "devotion", "sacred", "holy", "blessed"
+    };
+    
+    // Single automaton over the keyword and album tables, built once
+    // (artists are looked up in SpiritualArtistIndex)
+    private static final SpiritualKeywordMatcher MATCHER =
+        new SpiritualKeywordMatcher(SPIRITUAL_KEYWORDS, SPIRITUAL_ALBUMS);
+    
+    // Batches at least this large are classified in parallel
+    static final int PARALLEL_BATCH_THRESHOLD = 1024;
+    private static final int BATCH_LEAF_SIZE = 256;
+    
+    /**
+     * How songs are classified
+     */
+    public enum ClassifierMode {
+        // Keyword and artist dictionary heuristic
+        KEYWORD,
+        // Naive Bayes over hashed words (falls back to KEYWORD without a model)
+        NAIVE_BAYES
+    }
+    
+    private static volatile ClassifierMode classifierMode = ClassifierMode.KEYWORD;
+    
+    // Bounded LRU of classifications keyed by Deezer track id
+    private static final int CLASSIFICATION_CACHE_SIZE = 2048;
+    private static final Map<Long, SpiritualClassification> CLASSIFICATION_CACHE =
+        new LinkedHashMap<Long, SpiritualClassification>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, SpiritualClassification> eldest) {
+                return size() > CLASSIFICATION_CACHE_SIZE;
+            }
+        };
+    
+    /**
+     * Filter a list of songs to only include spiritual/worship songs
+     * @param songs List of songs to filter
+     * @return Filtered list containing only spiritual songs
+     */
+    public static List<Song> filterSpiritualSongs(List<Song> songs) {
+        if (songs == null || songs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<Song> spiritualSongs = new ArrayList<>();
+        
+        for (Song song : songs) {
+            if (isSpiritualSong(song)) {
+                spiritualSongs.add(song);
+            }
+        }
+        
+        return spiritualSongs;
+    }
+    
+    /**
+     * Classify a whole batch of songs without building intermediate lists.
+     * Large batches are split across cores with fork-join.
+     * Results are memoized on each song but not added to the shared cache,
+     * so bulk jobs do not evict entries used by interactive searches.
+     * @param songs Songs to classify
+     * @return Accepted positions and per-position scores
+     */
+    public static SpiritualBatchResult classifyBatch(List<Song> songs) {
+        if (songs == null || songs.isEmpty()) {
+            return SpiritualBatchResult.empty();
+        }
+        
+        List<Song> indexed = songs instanceof RandomAccess ? songs : new ArrayList<>(songs);
+        int size = indexed.size();
+        int[] scores = new int[size];
+        long[] acceptedWords = new long[(size + 63) >>> 6];
+        
+        if (size < PARALLEL_BATCH_THRESHOLD) {
+            classifyRange(indexed, 0, size, scores, acceptedWords);
+        } else {
+            ForkJoinPool.commonPool().invoke(new BatchTask(indexed, 0, size, scores, acceptedWords));
+        }
+        
+        return new SpiritualBatchResult(BitSet.valueOf(acceptedWords), scores);
+    }
+    
+    /**
+     * Classify every song of a raw API response. A prefiltered response
+     * (decoded by SpiritualResponseAdapter) holds only its spiritual songs.
+     * @param response Deezer response to classify
+     * @return Accepted positions and per-position scores
+     */
+    public static SpiritualBatchResult classifyBatch(DeezerResponse response) {
+        return response != null ? classifyBatch(response.getSongs()) : SpiritualBatchResult.empty();
+    }
+    
+    private static void classifyRange(List<Song> songs, int from, int to, int[] scores, long[] acceptedWords) {
+        for (int i = from; i < to; i++) {
+            Song song = songs.get(i);
+            if (song == null) {
+                continue;
+            }
+            SpiritualClassification classification = song.getSpiritualClassification();
+            if (classification == null) {
+                classification = computeClassification(song);
+                song.setSpiritualClassification(classification);
+            }
+            scores[i] = classification.getScore();
+            if (classification.isSpiritual()) {
+                acceptedWords[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+    
+    /**
+     * Fork-join task over a range of a batch. Leaf ranges start on 64-song
+     * boundaries so no two tasks write to the same word of the accepted bits.
+     */
+    private static final class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Song> songs;
+        private final int from;
+        private final int to;
+        private final int[] scores;
+        private final long[] acceptedWords;
+        
+        BatchTask(List<Song> songs, int from, int to, int[] scores, long[] acceptedWords) {
+            this.songs = songs;
+            this.from = from;
+            this.to = to;
+            this.scores = scores;
+            this.acceptedWords = acceptedWords;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_LEAF_SIZE) {
+                classifyRange(songs, from, to, scores, acceptedWords);
+                return;
+            }
+            int middle = ((from + to) >>> 1) & ~63;
+            invokeAll(new BatchTask(songs, from, middle, scores, acceptedWords),
+                      new BatchTask(songs, middle, to, scores, acceptedWords));
+        }
+    }
+    
+    /**
+     * Check if a song is spiritual/worship music
+     * @param song Song to check
+     * @return true if the song is considered spiritual
+     */
+    public static boolean isSpiritualSong(Song song) {
+        return classify(song).isSpiritual();
+    }
+    
+    /**
+     * Classify a song once and remember the result.
+     * The result is kept on the song itself and in a bounded cache keyed by
+     * Deezer id, so the same track in a later response is not scanned again.
+     * @param song Song to classify
+     * @return Classification result, never null
+     */
+    public static SpiritualClassification classify(Song song) {
+        if (song == null) {
+            return SpiritualClassification.NOT_SPIRITUAL;
+        }
+        
+        SpiritualClassification classification = song.getSpiritualClassification();
+        if (classification != null) {
+            return classification;
+        }
+        
+        long id = song.getId();
+        if (id > 0) {
+            synchronized (CLASSIFICATION_CACHE) {
+                classification = CLASSIFICATION_CACHE.get(id);
+            }
+        }
+        
+        if (classification == null) {
+            classification = computeClassification(song);
+            if (id > 0) {
+                synchronized (CLASSIFICATION_CACHE) {
+                    CLASSIFICATION_CACHE.put(id, classification);
+                }
+            }
+        }
+        
+        song.setSpiritualClassification(classification);
+        return classification;
+    }
+    
+    /**
+     * Classify a track from its raw fields, before any Song is built for it.
+     * Shares the id cache with classify(Song); used by the streaming decoder.
+     * @param id Deezer track id (0 if unknown)
+     * @param title Track title
+     * @param artistName Artist name
+     * @param albumTitle Album title
+     * @return Classification result, never null
+     */
+    public static SpiritualClassification classify(long id, String title, String artistName, String albumTitle) {
+        SpiritualClassification classification = null;
+        if (id > 0) {
+            synchronized (CLASSIFICATION_CACHE) {
+                classification = CLASSIFICATION_CACHE.get(id);
+            }
+        }
+        
+        if (classification == null) {
+            classification = computeClassification(title, artistName, albumTitle);
+            if (id > 0) {
+                synchronized (CLASSIFICATION_CACHE) {
+                    CLASSIFICATION_CACHE.put(id, classification);
+                }
+            }
+        }
+        return classification;
+    }
+    
+    /**
+     * Get the classification remembered for a track id, without computing one
+     * @param id Deezer track id
+     * @return Cached classification, or null if the id is not in the cache
+     */
+    public static SpiritualClassification getCachedClassification(long id) {
+        if (id <= 0) {
+            return null;
+        }
+        synchronized (CLASSIFICATION_CACHE) {
+            return CLASSIFICATION_CACHE.get(id);
+        }
+    }
+    
+    /**
+     * Seed the id cache with classifications computed earlier (e.g. scores
+     * persisted by a previous run). Ids that are already cached are kept.
+     * @param classifications Classifications keyed by Deezer id
+     */
+    public static void seedClassifications(Map<Long, SpiritualClassification> classifications) {
+        if (classifications == null || classifications.isEmpty()) {
+            return;
+        }
+        synchronized (CLASSIFICATION_CACHE) {
+            for (Map.Entry<Long, SpiritualClassification> entry : classifications.entrySet()) {
+                if (entry.getKey() > 0 && entry.getValue() != null) {
+                    CLASSIFICATION_CACHE.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Get a hash of every table the classification depends on (keywords,
+     * albums, the artist dictionary and, in NAIVE_BAYES mode, the model). Persisted scores tagged with a
+     * different hash were computed from other dictionaries and must be ignored.
+     * @return Dictionary fingerprint
+     */
+    public static long getDictionaryFingerprint() {
+        long hash = SpiritualArtistIndex.FNV_OFFSET_BASIS;
+        for (String keyword : SPIRITUAL_KEYWORDS) {
+            hash = SpiritualArtistIndex.fnv1a(hash, keyword);
+        }
+        hash = SpiritualArtistIndex.fnv1a(hash, "#albums");
+        for (String album : SPIRITUAL_ALBUMS) {
+            hash = SpiritualArtistIndex.fnv1a(hash, album);
+        }
+        hash = hash * 31 + SpiritualArtistIndex.getInstance().getFingerprint();
+        
+        if (classifierMode == ClassifierMode.NAIVE_BAYES) {
+            SpiritualBayesModel model = SpiritualBayesModel.getInstance();
+            if (model != null) {
+                hash = hash * 31 + model.getFingerprint();
+            }
+        }
+        return hash;
+    }
+    
+    /**
+     * Clear cached classifications (e.g. after the keyword tables change)
+     */
+    public static void clearClassificationCache() {
+        synchronized (CLASSIFICATION_CACHE) {
+            CLASSIFICATION_CACHE.clear();
+        }
+    }
+    
+    /**
+     * Select the classifier. Cached classifications from the other mode are dropped.
+     * @param mode Classifier mode
+     */
+    public static void setClassifierMode(ClassifierMode mode) {
+        if (mode != null && mode != classifierMode) {
+            classifierMode = mode;
+            clearClassificationCache();
+        }
+    }
+    
+    /**
+     * Get the selected classifier mode
+     */
+    public static ClassifierMode getClassifierMode() {
+        return classifierMode;
+    }
+    
+    private static SpiritualClassification computeClassification(Song song) {
+        return computeClassification(song.getTitle(), song.getArtistName(), song.getAlbumTitle());
+    }
+    
+    private static SpiritualClassification computeClassification(String title, String artist, String album) {
+        if (classifierMode == ClassifierMode.NAIVE_BAYES) {
+            SpiritualBayesModel model = SpiritualBayesModel.getInstance();
+            if (model != null) {
+                return computeBayesClassification(title, artist, album, model);
+            }
+        }
+        return computeKeywordClassification(title, artist, album);
+    }
+    
+    /**
+     * Sum the hashed word weights of every field; the log-odds decide the
+     * spiritual flag and map to a 0-100 score
+     */
+    private static SpiritualClassification computeBayesClassification(String titleText, String artistText,
+                                                                      String albumText, SpiritualBayesModel model) {
+        float title = model.scoreField(titleText, SpiritualBayesModel.FIELD_TITLE);
+        float artist = model.scoreField(artistText, SpiritualBayesModel.FIELD_ARTIST);
+        float album = model.scoreField(albumText, SpiritualBayesModel.FIELD_ALBUM);
+        float logOdds = model.getPriorLogOdds() + title + artist + album;
+        
+        int matchedFields = 0;
+        if (title > 0f) matchedFields |= SpiritualClassification.FIELD_TITLE;
+        if (artist > 0f) matchedFields |= SpiritualClassification.FIELD_ARTIST;
+        if (album > 0f) matchedFields |= SpiritualClassification.FIELD_ALBUM;
+        
+        int score = (int) Math.round(100.0 / (1.0 + Math.exp(-logOdds)));
+        return new SpiritualClassification(logOdds >= model.getThreshold(), score, matchedFields);
+    }
+    
+    /**
+     * Scan title, artist and album once each and derive both the
+     * spiritual flag and the score from the same matches
+     */
+    private static SpiritualClassification computeKeywordClassification(String title, String artist, String album) {
+        SpiritualKeywordMatcher.Result titleMatch = MATCHER.scan(title);
+        SpiritualKeywordMatcher.Result artistMatch = MATCHER.scan(artist);
+        SpiritualKeywordMatcher.Result albumMatch = MATCHER.scan(album);
+        boolean spiritualArtist = isSpiritualArtist(artist);
+        
+        int matchedFields = 0;
+        if (titleMatch.hasKeyword()) {
+            matchedFields |= SpiritualClassification.FIELD_TITLE;
+        }
+        if (artistMatch.hasKeyword() || spiritualArtist) {
+            matchedFields |= SpiritualClassification.FIELD_ARTIST;
+        }
+        if (albumMatch.hasKeyword()) {
+            matchedFields |= SpiritualClassification.FIELD_ALBUM;
+        }
+        
+        int score = 0;
+        
+        // Title (40 points max)
+        score += titleMatch.keywordCount * 10;
+        if (score > 40) score = 40;
+        
+        // Artist (30 points max)
+        if (artist != null) {
+            if (spiritualArtist) {
+                score += 30;
+            } else {
+                score += artistMatch.keywordCount * 5;
+                if (score > 30) score = 30;
+            }
+        }
+        
+        // Album (30 points max)
+        if (album != null) {
+            score += albumMatch.keywordCount * 5;
+            if (score > 30) score = 30;
+        }
+        
+        if (matchedFields == 0 && score == 0) {
+            return SpiritualClassification.NOT_SPIRITUAL;
+        }
+        return new SpiritualClassification(matchedFields != 0, Math.min(score, 100), matchedFields);
+    }
+    
+    /**
+     * Check if text contains spiritual keywords
+     * @param text Text to check
+     * @return true if contains spiritual keywords
+     */
+    private static boolean containsSpiritualKeywords(String text) {
+        return MATCHER.scan(text).hasKeyword();
+    }
+    
+    /**
+     * Check if artist is known for spiritual music
+     * @param artistName Artist name to check
+     * @return true if artist is in the spiritual artist dictionary
+     */
+    private static boolean isSpiritualArtist(String artistName) {
+        return SpiritualArtistIndex.getInstance().matches(artistName);
+    }
+    
+    /**
+     * Get spiritual search queries for better API results
+     * @return Array of spiritual search terms
+     */
+    public static String[] getSpiritualSearchQueries() {
+        return new String[]{
+            "gospel worship", "christian praise", "spiritual hymn", 
+            "jesus worship", "christ praise", "holy spirit",
+            "worship songs", "praise and worship", "christian music",
+            "gospel music", "contemporary christian", "church songs",
+            "hillsong worship", "bethel music", "elevation worship",
+            "worship instrumental", "praise team", "christian rock",
+            "rohani kristen", "lagu pujian", "musik worship",
+            "lagu gereja", "praise indonesia", "worship indonesia"
+        };
+    }
+    
+    /**
+     * Enhance search query with spiritual context
+     * @param originalQuery User's original search query
+     * @return Enhanced query with spiritual keywords
+     */
+    public static String enhanceQueryForSpiritual(String originalQuery) {
+        return planEnhancedQuery(originalQuery).getQuery();
+    }
+    
+    /**
+     * Enhance search query with the spiritual context that has yielded best so far
+     * @param originalQuery User's original search query
+     * @return Plan whose yield should be reported to SpiritualQueryPlanner
+     */
+    public static SpiritualQueryPlanner.Plan planEnhancedQuery(String originalQuery) {
+        if (originalQuery == null || originalQuery.trim().isEmpty()) {
+            return SpiritualQueryPlanner.Plan.untracked("worship christian gospel spiritual praise");
+        }
+        
+        // If query already contains spiritual terms, return as is
+        if (containsSpiritualKeywords(originalQuery)) {
+            return SpiritualQueryPlanner.Plan.untracked(originalQuery);
+        }
+        
+        // Add spiritual context to the query
+        return SpiritualQueryPlanner.getInstance().plan(SpiritualQueryPlanner.Group.ENHANCE, originalQuery);
+    }
+    
+    /**
+     * Calculate spiritual score for a song (0-100)
+     * Higher score means more likely to be spiritual
+     * @param song Song to score
+     * @return Spiritual score (0-100)
+     */
+    public static int calculateSpiritualScore(Song song) {
+        return classify(song).getScore();
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.example.worshipsound.utils;
+
+import com.example.worshipsound.models.Song;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Orders songs that passed SpiritualSongFilter by a weighted sum of
+ * pluggable scorers and keeps only the best K. Selection uses a bounded
+ * min-heap, so merging several result pages costs O(n log K) rather than
+ * sorting the whole list. A ranker (and the duplicate penalty scorer)
+ * keeps per-call state; create one per ranking and do not share it
+ * between threads.
+ */
+public class SpiritualSongRanker {
+
+    /**
+     * Scores one aspect of a song; higher ranks earlier
+     */
+    public interface Scorer {
+        /**
+         * Called once with all candidates before any score() call
+         */
+        default void prepare(List<Song> candidates) {}
+
+        double score(Song song);
+    }
+
+    // Default weights
+    public static final double WEIGHT_SPIRITUAL = 1.0;
+    public static final double WEIGHT_PREVIEW = 0.3;
+    public static final double WEIGHT_ARTIST_AFFINITY = 0.5;
+    public static final double WEIGHT_DUPLICATE = 1.0;
+
+    /**
+     * Spiritual score scaled to 0..1
+     */
+    public static final Scorer SPIRITUAL_SCORE = song -> SpiritualSongFilter.classify(song).getScore() / 100.0;
+
+    /**
+     * 1 if the song has a playable preview, otherwise 0
+     */
+    public static final Scorer HAS_PREVIEW = song ->
+            song.getPreviewUrl() != null && !song.getPreviewUrl().isEmpty() ? 1.0 : 0.0;
+
+    private final List<Scorer> scorers = new ArrayList<>();
+    private final List<Double> weights = new ArrayList<>();
+
+    /**
+     * Create a ranker with the default scorers
+     * @param likedArtistCounts Liked song count per artist (lower-case name), or null
+     */
+    public static SpiritualSongRanker createDefault(Map<String, Integer> likedArtistCounts) {
+        SpiritualSongRanker ranker = new SpiritualSongRanker()
+                .addScorer(SPIRITUAL_SCORE, WEIGHT_SPIRITUAL)
+                .addScorer(HAS_PREVIEW, WEIGHT_PREVIEW)
+                .addScorer(duplicatePenalty(), WEIGHT_DUPLICATE);
+        if (likedArtistCounts != null && !likedArtistCounts.isEmpty()) {
+            ranker.addScorer(artistAffinity(likedArtistCounts), WEIGHT_ARTIST_AFFINITY);
+        }
+        return ranker;
+    }
+
+    /**
+     * Add a scorer
+     * @param scorer Scorer to add
+     * @param weight Multiplier applied to its score
+     * @return This ranker
+     */
+    public SpiritualSongRanker addScorer(Scorer scorer, double weight) {
+        scorers.add(scorer);
+        weights.add(weight);
+        return this;
+    }
+
+    /**
+     * Affinity for artists the user has liked: count / (count + 2), so 0 for
+     * unknown artists and approaching 1 for favourites
+     * @param likedArtistCounts Liked song count per artist (lower-case name)
+     */
+    public static Scorer artistAffinity(Map<String, Integer> likedArtistCounts) {
+        return song -> {
+            String artist = song.getArtistName();
+            if (artist == null) {
+                return 0.0;
+            }
+            Integer count = likedArtistCounts.get(artist.trim().toLowerCase(Locale.ROOT));
+            return count == null ? 0.0 : count / (count + 2.0);
+        };
+    }
+
+    /**
+     * -1 for a song whose id, or title and artist, already appeared earlier in
+     * the candidate list; 0 otherwise. The first occurrence is not penalized.
+     */
+    public static Scorer duplicatePenalty() {
+        return new Scorer() {
+            private final Map<Song, Boolean> duplicates = new IdentityHashMap<>();
+
+            @Override
+            public void prepare(List<Song> candidates) {
+                duplicates.clear();
+                Set<Long> ids = new HashSet<>();
+                Set<String> names = new HashSet<>();
+                for (Song song : candidates) {
+                    boolean newId = song.getId() <= 0 || ids.add(song.getId());
+                    boolean newName = names.add(nameKey(song));
+                    if (!newId || !newName) {
+                        duplicates.put(song, Boolean.TRUE);
+                    }
+                }
+            }
+
+            @Override
+            public double score(Song song) {
+                return duplicates.containsKey(song) ? -1.0 : 0.0;
+            }
+        };
+    }
+
+    /**
+     * Pick the best songs, best first. Ties keep the input order.
+     * @param candidates Songs to rank (not modified)
+     * @param k Maximum number of songs to return
+     * @return Up to k songs ordered by descending combined score
+     */
+    public List<Song> rank(List<Song> candidates, int k) {
+        if (candidates == null || candidates.isEmpty() || k <= 0) {
+            return new ArrayList<>();
+        }
+        for (Scorer scorer : scorers) {
+            scorer.prepare(candidates);
+        }
+
+        int size = candidates.size();
+        double[] scores = new double[size];
+        for (int i = 0; i < size; i++) {
+            Song song = candidates.get(i);
+            double score = 0;
+            for (int s = 0; s < scorers.size(); s++) {
+                score += weights.get(s) * scorers.get(s).score(song);
+            }
+            scores[i] = score;
+        }
+
+        // Min-heap of candidate indices; the root is the weakest kept song
+        int capacity = Math.min(k, size);
+        int[] heap = new int[capacity];
+        int heapSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (heapSize < capacity) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, scores);
+            } else if (worse(heap[0], i, scores)) {
+                heap[0] = i;
+                siftDown(heap, heapSize, scores);
+            }
+        }
+
+        // Pop weakest first, filling the result from the back
+        Song[] ranked = new Song[heapSize];
+        for (int n = heapSize; n > 0; n--) {
+            ranked[n - 1] = candidates.get(heap[0]);
+            heap[0] = heap[n - 1];
+            siftDown(heap, n - 1, scores);
+        }
+        List<Song> result = new ArrayList<>(heapSize);
+        Collections.addAll(result, ranked);
+        return result;
+    }
+
+    // True if candidate a ranks below candidate b (lower score, or equal score and later)
+    private static boolean worse(int a, int b, double[] scores) {
+        return scores[a] < scores[b] || (scores[a] == scores[b] && a > b);
+    }
+
+    private static void siftUp(int[] heap, int position, double[] scores) {
+        int item = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!worse(item, heap[parent], scores)) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = item;
+    }
+
+    private static void siftDown(int[] heap, int size, double[] scores) {
+        int position = 0;
+        int item = heap[0];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && worse(heap[child + 1], heap[child], scores)) {
+                child++;
+            }
+            if (!worse(heap[child], item, scores)) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = item;
+    }
+
+    private static String nameKey(Song song) {
+        String title = song.getTitle() == null ? "" : song.getTitle().trim().toLowerCase(Locale.ROOT);
+        String artist = song.getArtistName() == null ? "" : song.getArtistName().trim().toLowerCase(Locale.ROOT);
+        return title + '\u0000' + artist;
+    }
+}
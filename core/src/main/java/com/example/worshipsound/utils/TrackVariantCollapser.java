@@ -0,0 +1,124 @@
+package com.example.worshipsound.utils;
+
+import com.example.worshipsound.models.Song;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Collapses near-duplicate tracks: live, remastered, karaoke and
+ * compilation copies of the same song that Deezer returns under different
+ * ids. Title and artist are normalized (version notes and "feat." clauses
+ * stripped), hashed to 64 bits, and each hash keeps one copy.
+ */
+public final class TrackVariantCollapser {
+
+    // Words that mark a bracketed or dashed title suffix as a version note
+    private static final String VARIANT_WORDS =
+            "live|remaster|remastered|remix|karaoke|version|edit|mono|stereo|deluxe|bonus|anniversary"
+            + "|feat|ft|featuring|originally performed|in the style of|made famous";
+    // "with" and "from" only count when they open the suffix and name someone or
+    // something, as in "(from The Chosen)" or "- with Jenn Johnson"; "(With You)" is part of the song
+    private static final String LEADING_WORDS = "with|from";
+    private static final String LYRIC_OBJECTS = "you|me|us|him|her|them|it|thee|my|your|above";
+
+    private static final Pattern BRACKETED = Pattern.compile("[(\\[]([^)\\]]*)[)\\]]");
+    private static final Pattern DASHED_SUFFIX = Pattern.compile("\\s[-\u2013\u2014]\\s(.*)$");
+    private static final Pattern VARIANT = Pattern.compile("\\b(" + VARIANT_WORDS + ")\\b");
+    private static final Pattern LEADING_VARIANT = Pattern.compile(
+            "^\\s*(" + LEADING_WORDS + ")\\s+(?!(" + LYRIC_OBJECTS + ")\\b)\\S");
+    private static final Pattern FEATURING = Pattern.compile("\\s(feat\\.?|ft\\.|featuring)\\s.*$");
+    private static final Pattern ARTIST_SEPARATOR = Pattern.compile("\\s*(,|\\sfeat\\.?\\s|\\sft\\.\\s|\\sfeaturing\\s).*$");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TrackVariantCollapser() {}
+
+    /**
+     * Keep one copy of each song, at the position of its first copy. A copy
+     * replaces the kept one if it has a preview the kept one lacks, or else
+     * if it is the plain version and the kept one is not.
+     * @param songs Songs in display order (not modified)
+     * @return Songs with near-duplicates removed
+     */
+    public static List<Song> collapse(List<Song> songs) {
+        List<Song> result = new ArrayList<>();
+        if (songs == null || songs.isEmpty()) {
+            return result;
+        }
+
+        LongIntHashMap positions = new LongIntHashMap(songs.size());
+        List<Integer> qualities = new ArrayList<>(songs.size());
+        for (Song song : songs) {
+            String title = song.getTitle() == null ? "" : song.getTitle().toLowerCase(Locale.ROOT);
+            String normalizedTitle = normalizeTitle(title);
+            // A 64-bit collision between different songs is negligible at page sizes
+            long key = SpiritualArtistIndex.fnv1a(SpiritualArtistIndex.FNV_OFFSET_BASIS, normalizedTitle);
+            key = SpiritualArtistIndex.fnv1a(key, normalizeArtist(song.getArtistName()));
+
+            int quality = quality(song, !normalizedTitle.equals(compact(title)));
+            int position = positions.get(key);
+            if (position == LongIntHashMap.NO_VALUE) {
+                positions.put(key, result.size());
+                result.add(song);
+                qualities.add(quality);
+            } else if (quality > qualities.get(position)) {
+                result.set(position, song);
+                qualities.set(position, quality);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Strip version notes from a lower-case title and keep only letters and digits
+     */
+    static String normalizeTitle(String title) {
+        StringBuffer stripped = new StringBuffer(title.length());
+        Matcher bracketed = BRACKETED.matcher(title);
+        while (bracketed.find()) {
+            boolean variant = isVersionNote(bracketed.group(1));
+            bracketed.appendReplacement(stripped, variant ? " " : Matcher.quoteReplacement(bracketed.group()));
+        }
+        bracketed.appendTail(stripped);
+
+        String result = stripped.toString();
+        Matcher dashed = DASHED_SUFFIX.matcher(result);
+        if (dashed.find() && isVersionNote(dashed.group(1))) {
+            result = result.substring(0, dashed.start());
+        }
+        result = FEATURING.matcher(result).replaceFirst("");
+        String compacted = compact(result);
+        // A title made only of version notes is kept whole rather than emptied
+        return compacted.isEmpty() ? compact(title) : compacted;
+    }
+
+    /**
+     * Check whether a bracketed or dashed title suffix is a version note
+     */
+    private static boolean isVersionNote(String suffix) {
+        return VARIANT.matcher(suffix).find() || LEADING_VARIANT.matcher(suffix).find();
+    }
+
+    /**
+     * Reduce an artist credit to its lower-case primary artist
+     */
+    static String normalizeArtist(String artist) {
+        if (artist == null) {
+            return "";
+        }
+        String lower = artist.toLowerCase(Locale.ROOT);
+        return compact(ARTIST_SEPARATOR.matcher(lower).replaceFirst(""));
+    }
+
+    private static String compact(String text) {
+        return NON_ALPHANUMERIC.matcher(text).replaceAll(" ").trim();
+    }
+
+    private static int quality(Song song, boolean variant) {
+        boolean hasPreview = song.getPreviewUrl() != null && !song.getPreviewUrl().isEmpty();
+        return (hasPreview ? 2 : 0) + (variant ? 0 : 1);
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.worshipsound.utils;
+
+import com.example.worshipsound.models.DeezerResponse;
+import com.example.worshipsound.models.Song;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Fetches and filters the trending queries ahead of time so the home feed
+ * can open from a stored snapshot instead of waiting on a live search.
+ * Runs synchronously on the caller's thread; meant for a background job.
+ */
+public class TrendingWarmer {
+
+    // A snapshot older than this is not shown
+    public static final long DEFAULT_MAX_AGE_MS = TimeUnit.HOURS.toMillis(24);
+    // Songs kept per query
+    public static final int SNAPSHOT_SONGS = 25;
+
+    /**
+     * Fetches one page of a trending query
+     */
+    public interface Fetcher {
+        /**
+         * @param query Trending query, as listed by SpiritualSongFilter.getSpiritualSearchQueries()
+         * @return Decoded response, or null if the service answered without one
+         */
+        DeezerResponse fetch(String query) throws IOException;
+    }
+
+    /**
+     * Persists snapshots, one per query
+     */
+    public interface Store {
+        /**
+         * @return Snapshot for the query, or null if none was stored
+         */
+        Snapshot read(String query);
+        void write(String query, Snapshot snapshot);
+    }
+
+    /**
+     * Filtered and ranked songs of a query at a point in time
+     */
+    public static final class Snapshot {
+        private final List<Song> songs;
+        private final int totalFound;
+        private final long fetchedAt;
+
+        /**
+         * @param songs Spiritual songs, best ranked first
+         * @param totalFound Tracks scanned to find them
+         * @param fetchedAt Wall-clock time of the fetch in milliseconds
+         */
+        public Snapshot(List<Song> songs, int totalFound, long fetchedAt) {
+            this.songs = songs != null ? songs : Collections.emptyList();
+            this.totalFound = totalFound;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public List<Song> getSongs() { return songs; }
+        public int getTotalFound() { return totalFound; }
+        public long getFetchedAt() { return fetchedAt; }
+    }
+
+    /**
+     * Outcome of one warm-up run
+     */
+    public static final class Result {
+        private final int warmed;
+        private final int failed;
+        private final boolean stopped;
+
+        Result(int warmed, int failed, boolean stopped) {
+            this.warmed = warmed;
+            this.failed = failed;
+            this.stopped = stopped;
+        }
+
+        public int getWarmedCount() { return warmed; }
+        public int getFailedCount() { return failed; }
+        public boolean isStopped() { return stopped; }
+
+        /**
+         * @return true if every query was fetched
+         */
+        public boolean isComplete() {
+            return !stopped && failed == 0;
+        }
+
+        @Override
+        public String toString() {
+            return "Warmed " + warmed + ", failed " + failed + (stopped ? ", stopped" : "");
+        }
+    }
+
+    private final Fetcher fetcher;
+    private final Store store;
+    private final SpiritualSongRanker ranker;
+    private final LongSupplier clock;
+
+    /**
+     * @param ranker Orders each query's spiritual songs before the best SNAPSHOT_SONGS are kept
+     */
+    public TrendingWarmer(Fetcher fetcher, Store store, SpiritualSongRanker ranker) {
+        this(fetcher, store, ranker, System::currentTimeMillis);
+    }
+
+    TrendingWarmer(Fetcher fetcher, Store store, SpiritualSongRanker ranker, LongSupplier clock) {
+        this.fetcher = fetcher;
+        this.store = store;
+        this.ranker = ranker;
+        this.clock = clock;
+    }
+
+    /**
+     * Fetch, filter and store every trending query. A failed query (including a
+     * response without data) keeps its previous snapshot; queries that found no
+     * spiritual songs are stored empty.
+     * @param stopRequested Checked before each query; true ends the run early
+     */
+    public Result warm(BooleanSupplier stopRequested) {
+        int warmed = 0;
+        int failed = 0;
+        for (String query : SpiritualSongFilter.getSpiritualSearchQueries()) {
+            if (stopRequested.getAsBoolean()) {
+                return new Result(warmed, failed, true);
+            }
+            DeezerResponse response;
+            try {
+                response = fetcher.fetch(query);
+            } catch (IOException e) {
+                failed++;
+                continue;
+            }
+            // An HTTP 200 carrying {"error":...} decodes without data; keep the old snapshot
+            if (response == null || response.getSongs() == null) {
+                failed++;
+                continue;
+            }
+            List<Song> distinctSongs = TrackVariantCollapser.collapse(response.getSpiritualSongs());
+            List<Song> songs = ranker.rank(distinctSongs, SNAPSHOT_SONGS);
+            store.write(query, new Snapshot(songs, response.getScannedCount(), clock.getAsLong()));
+            warmed++;
+        }
+        return new Result(warmed, failed, false);
+    }
+
+    /**
+     * Get a query's snapshot if it is recent enough to show
+     * @param maxAgeMillis Oldest snapshot accepted
+     * @return Snapshot, or null if missing or too old
+     */
+    public static Snapshot readFresh(Store store, String query, long maxAgeMillis) {
+        return readFresh(store, query, maxAgeMillis, System.currentTimeMillis());
+    }
+
+    static Snapshot readFresh(Store store, String query, long maxAgeMillis, long now) {
+        Snapshot snapshot = store.read(query);
+        if (snapshot == null) {
+            return null;
+        }
+        long age = now - snapshot.getFetchedAt();
+        // A clock set backwards makes the age negative; such a snapshot is not trusted
+        return age >= 0 && age <= maxAgeMillis ? snapshot : null;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.worshipsound.models;
+
+import com.example.worshipsound.utils.SpiritualClassification;
+import com.example.worshipsound.utils.SpiritualSongFilter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the streaming, filtering DeezerResponse decoder
+ */
+public class SpiritualResponseAdapterTest {
+
+    private static final String PAYLOAD = "{"
+            + "\"data\":["
+            + "{\"id\":11,\"readable\":true,\"title\":\"Amazing Grace\",\"duration\":240,"
+            + "\"preview\":\"http://p/11.mp3\",\"contributors\":[{\"id\":1,\"name\":\"x\"}],"
+            + "\"artist\":{\"id\":5,\"name\":\"Some Choir\",\"picture\":\"http://a/5.jpg\"},"
+            + "\"album\":{\"id\":7,\"title\":\"Hymns\",\"cover_medium\":\"http://c/7.jpg\",\"cover\":null}},"
+            + "{\"id\":12,\"title\":\"Party All Night\",\"duration\":180,\"preview\":\"http://p/12.mp3\","
+            + "\"artist\":{\"name\":\"DJ Nobody\"},\"album\":{\"title\":\"Club Hits\"}},"
+            + "{\"id\":13,\"title\":\"Worship Medley\",\"duration\":300,\"preview\":null,\"album\":null},"
+            + "{\"id\":14,\"title\":\"Summer Road\",\"artist\":{\"name\":\"Band\"},"
+            + "\"album\":{\"title\":\"Gospel Classics\",\"cover_medium\":\"http://c/14.jpg\"}}"
+            + "],"
+            + "\"total\":812,\"next\":\"https://api.deezer.com/search?q=grace&index=4\",\"prev\":null}";
+
+    @Before
+    public void setUp() {
+        SpiritualSongFilter.clearClassificationCache();
+    }
+
+    @Test
+    public void keepsOnlySpiritualTracksAndCountsAll() {
+        DeezerResponse response = DeezerJson.parseFilteredResponse(new StringReader(PAYLOAD));
+
+        assertTrue(response.isPrefiltered());
+        assertTrue(response.hasData());
+        assertEquals(4, response.getScannedCount());
+        assertEquals(812, response.getTotal());
+        assertEquals("https://api.deezer.com/search?q=grace&index=4", response.getNext());
+        assertNull(response.getPrev());
+        assertSame(response.getSongs(), response.getSpiritualSongs());
+    }
+
+    @Test
+    public void matchesDecodeThenFilter() {
+        List<Song> expected = DeezerJson.parseResponse(new StringReader(PAYLOAD)).getSpiritualSongs();
+        SpiritualSongFilter.clearClassificationCache();
+        List<Song> actual = DeezerJson.parseFilteredResponse(new StringReader(PAYLOAD)).getSongs();
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Song want = expected.get(i);
+            Song got = actual.get(i);
+            assertEquals(want.getId(), got.getId());
+            assertEquals(want.getTitle(), got.getTitle());
+            assertEquals(want.getDuration(), got.getDuration());
+            assertEquals(want.getPreviewUrl(), got.getPreviewUrl());
+            assertEquals(want.getArtistName(), got.getArtistName());
+            assertEquals(want.getAlbumTitle(), got.getAlbumTitle());
+            assertEquals(want.getAlbumCover(), got.getAlbumCover());
+            assertEquals(want.getAlbum() == null, got.getAlbum() == null);
+            assertEquals(SpiritualSongFilter.classify(want).getScore(), got.getSpiritualClassification().getScore());
+        }
+    }
+
+    @Test
+    public void reportsComputedClassificationsForEveryTrack() {
+        Map<Long, SpiritualClassification> computed =
+                DeezerJson.parseFilteredResponse(new StringReader(PAYLOAD)).getNewClassifications();
+
+        assertEquals(4, computed.size());
+        assertTrue(computed.get(11L).isSpiritual());
+        assertFalse(computed.get(12L).isSpiritual());
+
+        // A second decode finds every id in the cache and has nothing new to report
+        assertTrue(DeezerJson.parseFilteredResponse(new StringReader(PAYLOAD)).getNewClassifications().isEmpty());
+    }
+
+    @Test
+    public void seededClassificationsAreUsedWithoutRecomputing() {
+        SpiritualClassification persisted = new SpiritualClassification(true, 42, SpiritualClassification.FIELD_ARTIST);
+        SpiritualSongFilter.seedClassifications(Collections.singletonMap(12L, persisted));
+
+        DeezerResponse response = DeezerJson.parseFilteredResponse(new StringReader(PAYLOAD));
+
+        Song seeded = null;
+        for (Song song : response.getSongs()) {
+            if (song.getId() == 12L) {
+                seeded = song;
+            }
+        }
+        assertNotNull(seeded);
+        assertSame(persisted, seeded.getSpiritualClassification());
+        assertFalse(response.getNewClassifications().containsKey(12L));
+        assertEquals(3, response.getNewClassifications().size());
+    }
+
+    @Test
+    public void emptyAndErrorPayloads() {
+        DeezerResponse empty = DeezerJson.parseFilteredResponse(new StringReader("{\"data\":[],\"total\":0}"));
+        assertFalse(empty.hasData());
+        assertTrue(empty.getSongs().isEmpty());
+
+        DeezerResponse error = DeezerJson.parseFilteredResponse(new StringReader(
+                "{\"error\":{\"type\":\"Exception\",\"message\":\"Quota limit exceeded\",\"code\":4}}"));
+        assertFalse(error.hasData());
+        assertNull(error.getSongs());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.worshipsound.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the circuit breaker
+ */
+public class CircuitBreakerTest {
+    private long now = 0;
+
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 1000, () -> now);
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void probesAfterOpenPeriod() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, () -> now);
+        breaker.recordFailure();
+
+        now = 999;
+        assertFalse(breaker.allowRequest());
+        now = 1000;
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        // Only one probe at a time
+        assertFalse(breaker.allowRequest());
+
+        // A failed probe opens the circuit again
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        now = 2000;
+        assertTrue(breaker.allowRequest());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void replacesLostProbe() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, () -> now);
+        breaker.recordFailure();
+        now = 1000;
+        assertTrue(breaker.allowRequest());
+        now = 1500;
+        assertFalse(breaker.allowRequest());
+        now = 2000;
+        assertTrue(breaker.allowRequest());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.worshipsound.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for latency percentiles
+ */
+public class LatencyTrackerTest {
+
+    @Test
+    public void reportsNearestRankPercentiles() {
+        LatencyTracker tracker = new LatencyTracker(100);
+        assertEquals(1500, tracker.getPercentile(95, 1500));
+
+        for (int i = 100; i >= 1; i--) {
+            tracker.record(i * 10L);
+        }
+        assertEquals(950, tracker.getPercentile(95, 0));
+        assertEquals(500, tracker.getPercentile(50, 0));
+        assertEquals(1000, tracker.getPercentile(100, 0));
+    }
+
+    @Test
+    public void keepsOnlyRecentSamples() {
+        LatencyTracker tracker = new LatencyTracker(4);
+        for (int i = 0; i < 10; i++) {
+            tracker.record(5000);
+        }
+        for (int i = 0; i < 4; i++) {
+            tracker.record(100);
+        }
+        assertEquals(4, tracker.getSampleCount());
+        assertEquals(100, tracker.getPercentile(95, 0));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.worshipsound.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for network metrics
+ */
+public class NetworkStatsTest {
+
+    @Test
+    public void foldsIdsInEndpointNames() {
+        assertEquals("GET /search", NetworkStats.endpointName("GET", "/search"));
+        assertEquals("GET /track/{id}", NetworkStats.endpointName("GET", "/track/3135556"));
+        assertEquals("GET /artist/{id}/top", NetworkStats.endpointName("GET", "/artist/27/top"));
+        assertEquals("GET /", NetworkStats.endpointName("GET", "/"));
+    }
+
+    @Test
+    public void countsOutcomes() {
+        NetworkStats stats = new NetworkStats();
+        NetworkStats.Endpoint search = stats.endpoint("GET /search");
+        assertSame(search, stats.endpoint("GET /search"));
+
+        search.recordResponse(120, 200, false, false);
+        search.recordResponse(3, 200, true, false);
+        search.recordResponse(80, 304, false, true);
+        search.recordResponse(900, 503, false, false);
+        search.recordFailure(30000);
+        search.recordRetries(2);
+        search.recordRetries(0);
+        search.addBytesIn(2048);
+        search.addBytesOut(300);
+
+        assertEquals(5, search.getRequestCount());
+        assertEquals(1, search.getFailureCount());
+        assertEquals(1, search.getCacheHitCount());
+        assertEquals(1, search.getRevalidationCount());
+        assertEquals(2, search.getRetryCount());
+        assertEquals(2, search.getStatusCount(2));
+        assertEquals(1, search.getStatusCount(3));
+        assertEquals(1, search.getStatusCount(5));
+        assertEquals(2048, search.getBytesIn());
+        assertEquals(300, search.getBytesOut());
+        assertTrue(stats.dump().contains("GET /search: 5 req, 1 failed"));
+
+        stats.reset();
+        assertTrue(stats.getEndpoints().isEmpty());
+    }
+
+    @Test
+    public void estimatesPercentilesFromBuckets() {
+        NetworkStats.Endpoint endpoint = new NetworkStats().endpoint("GET /search");
+        assertEquals(0, endpoint.getLatencyPercentile(95));
+
+        for (int i = 0; i < 90; i++) {
+            endpoint.recordResponse(150, 200, false, false);
+        }
+        for (int i = 0; i < 10; i++) {
+            endpoint.recordResponse(9000, 200, false, false);
+        }
+        assertEquals(200, endpoint.getLatencyPercentile(50));
+        assertEquals(9000, endpoint.getLatencyPercentile(95));
+        assertEquals(9000, endpoint.getMaxLatency());
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.worshipsound.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the priority token bucket
+ */
+public class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    public void allowsBurstThenRefills() {
+        RateLimiter limiter = new RateLimiter(5, 5000, now::get);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        now.addAndGet(999);
+        assertFalse(limiter.tryAcquire());
+        now.addAndGet(1);
+        assertTrue(limiter.tryAcquire());
+
+        // Refills never exceed the bucket size
+        now.addAndGet(60_000);
+        assertEquals(5, limiter.getAvailablePermits());
+        assertEquals(6, limiter.getGrantedCount());
+    }
+
+    @Test
+    public void servesHigherPriorityFirst() throws Exception {
+        RateLimiter limiter = new RateLimiter(1, 1000, now::get);
+        assertTrue(limiter.tryAcquire());
+
+        List<RateLimiter.Priority> order = Collections.synchronizedList(new ArrayList<>());
+        Thread prefetch = waiter(limiter, RateLimiter.Priority.PREFETCH, order);
+        prefetch.start();
+        awaitQueueLength(limiter, 1);
+        Thread fallback = waiter(limiter, RateLimiter.Priority.FALLBACK, order);
+        fallback.start();
+        awaitQueueLength(limiter, 2);
+        Thread interactive = waiter(limiter, RateLimiter.Priority.INTERACTIVE, order);
+        interactive.start();
+        awaitQueueLength(limiter, 3);
+
+        now.addAndGet(1000);
+        interactive.join(2000);
+        assertEquals(Collections.singletonList(RateLimiter.Priority.INTERACTIVE), order);
+        assertFalse(limiter.tryAcquire());
+
+        now.addAndGet(1000);
+        fallback.join(2000);
+        now.addAndGet(1000);
+        prefetch.join(2000);
+        assertEquals(3, order.size());
+        assertEquals(RateLimiter.Priority.FALLBACK, order.get(1));
+        assertEquals(RateLimiter.Priority.PREFETCH, order.get(2));
+        assertEquals(0, limiter.getQueueLength());
+        assertEquals(3, limiter.getDelayedCount());
+    }
+
+    @Test
+    public void abandonsWaitOnTimeoutOrCancel() throws Exception {
+        RateLimiter limiter = new RateLimiter(1, 60_000);
+        assertTrue(limiter.tryAcquire());
+
+        assertFalse(limiter.acquire(RateLimiter.Priority.INTERACTIVE, 20, () -> false));
+
+        AtomicBoolean cancelled = new AtomicBoolean(true);
+        assertFalse(limiter.acquire(RateLimiter.Priority.PREFETCH, 0, cancelled::get));
+        assertEquals(2, limiter.getAbandonedCount());
+        assertEquals(0, limiter.getQueueLength());
+    }
+
+    @Test
+    public void raisedPriorityOvertakesWhileWaiting() throws Exception {
+        RateLimiter limiter = new RateLimiter(1, 1000, now::get);
+        assertTrue(limiter.tryAcquire());
+
+        List<RateLimiter.Priority> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicReference<RateLimiter.Priority> joined = new AtomicReference<>(RateLimiter.Priority.PREFETCH);
+        Thread prefetch = new Thread(() -> {
+            try {
+                if (limiter.acquire(joined::get, 0, () -> false)) {
+                    order.add(joined.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        prefetch.start();
+        awaitQueueLength(limiter, 1);
+        Thread fallback = waiter(limiter, RateLimiter.Priority.FALLBACK, order);
+        fallback.start();
+        awaitQueueLength(limiter, 2);
+
+        // An interactive caller joins the prefetch; lowering it again is ignored
+        joined.set(RateLimiter.Priority.INTERACTIVE);
+        Thread.sleep(150);
+        joined.set(RateLimiter.Priority.PREFETCH);
+        Thread.sleep(150);
+
+        now.addAndGet(1000);
+        prefetch.join(2000);
+        assertEquals(1, order.size());
+        assertFalse(fallback.getState() == Thread.State.TERMINATED);
+
+        now.addAndGet(1000);
+        fallback.join(2000);
+        assertEquals(RateLimiter.Priority.FALLBACK, order.get(1));
+    }
+
+    @Test
+    public void releaseReturnsPermitUpToBucketSize() {
+        RateLimiter limiter = new RateLimiter(2, 60_000, now::get);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+
+        limiter.release();
+        limiter.release();
+        limiter.release();
+        assertEquals(2, limiter.getAvailablePermits());
+        assertEquals(4, limiter.getReleasedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidRate() {
+        new RateLimiter(10, 5000).configure(0, 5000);
+    }
+
+    private static Thread waiter(RateLimiter limiter, RateLimiter.Priority priority, List<RateLimiter.Priority> order) {
+        return new Thread(() -> {
+            try {
+                if (limiter.acquire(priority, 0, () -> false)) {
+                    order.add(priority);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private static void awaitQueueLength(RateLimiter limiter, int length) throws InterruptedException {
+        for (int i = 0; i < 200 && limiter.getQueueLength() < length; i++) {
+            Thread.sleep(5);
+        }
+        assertEquals(length, limiter.getQueueLength());
+    }
+}
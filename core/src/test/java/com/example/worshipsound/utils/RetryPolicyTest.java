@@ -0,0 +1,37 @@
+package com.example.worshipsound.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for jittered exponential backoff
+ */
+public class RetryPolicyTest {
+
+    @Test
+    public void doublesUpToTheCap() {
+        RetryPolicy policy = new RetryPolicy(5, 200, 1500);
+        assertEquals(200, policy.delayMillis(0, () -> 1.0));
+        assertEquals(400, policy.delayMillis(1, () -> 1.0));
+        assertEquals(800, policy.delayMillis(2, () -> 1.0));
+        assertEquals(1500, policy.delayMillis(3, () -> 1.0));
+        assertEquals(1500, policy.delayMillis(60, () -> 1.0));
+    }
+
+    @Test
+    public void jitterStaysWithinTheCeiling() {
+        RetryPolicy policy = new RetryPolicy(3, 100, 1000);
+        assertEquals(0, policy.delayMillis(2, () -> 0.0));
+        assertEquals(200, policy.delayMillis(2, () -> 0.5));
+        for (int i = 0; i < 100; i++) {
+            long delay = policy.delayMillis(2);
+            assertTrue(delay >= 0 && delay <= 400);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvertedBounds() {
+        new RetryPolicy(2, 500, 100);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.worshipsound.utils;
+
+import com.example.worshipsound.models.Song;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for blending ranked feeds
+ */
+public class SongInterleaverTest {
+
+    private static Song song(long id, String title, String artist) {
+        return new Song(id, title, artist, "Album", "http://p/" + id + ".mp3", 200, "");
+    }
+
+    private static List<Long> ids(List<Song> songs) {
+        List<Long> ids = new ArrayList<>();
+        for (Song song : songs) {
+            ids.add(song.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void takesTurnsAndSkipsRepeatedIds() {
+        List<Song> gospel = Arrays.asList(song(1, "Oceans", "Hillsong United"), song(2, "Way Maker", "Sinach"),
+                song(3, "Amazing Grace", "Choir"));
+        List<Song> worship = Arrays.asList(song(2, "Way Maker", "Sinach"), song(4, "Holy Spirit", "Francesca Battistelli"));
+        List<Song> hymns = Collections.singletonList(song(5, "How Great Thou Art", "Carrie Underwood"));
+
+        List<Song> blended = SongInterleaver.interleave(Arrays.asList(gospel, worship, hymns, null), 0);
+
+        assertEquals(Arrays.asList(1L, 2L, 5L, 4L, 3L), ids(blended));
+    }
+
+    @Test
+    public void collapsesVariantsAcrossFeedsAndLimits() {
+        List<Song> first = Arrays.asList(song(1, "Goodness of God", "Bethel Music"), song(2, "Raise a Hallelujah", "Bethel Music"));
+        List<Song> second = Arrays.asList(song(3, "Goodness of God (Live)", "Bethel Music"), song(4, "Gratitude", "Brandon Lake"));
+
+        assertEquals(Arrays.asList(1L, 2L, 4L), ids(SongInterleaver.interleave(Arrays.asList(first, second), 0)));
+        assertEquals(Arrays.asList(1L, 2L), ids(SongInterleaver.interleave(Arrays.asList(first, second), 2)));
+        assertTrue(SongInterleaver.interleave(Collections.emptyList(), 10).isEmpty());
+    }
+}
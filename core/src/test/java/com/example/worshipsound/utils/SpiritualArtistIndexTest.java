@@ -0,0 +1,72 @@
+package com.example.worshipsound.utils;
+
+import com.example.worshipsound.models.Song;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the spiritual artist dictionary index
+ */
+public class SpiritualArtistIndexTest {
+
+    private static SpiritualArtistIndex load(String text) throws IOException {
+        return SpiritualArtistIndex.load(new StringReader(text));
+    }
+
+    @Test
+    public void matchesWholeWordsOnly() throws IOException {
+        SpiritualArtistIndex index = load("# comment\nhillsong\nchris tomlin\n");
+        assertEquals(2, index.size());
+        assertTrue(index.matches("Hillsong United"));
+        assertTrue(index.matches("CHRIS TOMLIN"));
+        assertFalse(index.matches("Hillsongs"));
+        assertFalse(index.matches("Tomlin"));
+    }
+
+    @Test
+    public void fullNameEntriesDoNotMatchInsideOtherNames() throws IOException {
+        SpiritualArtistIndex index = load("=gms\n=nikita\n");
+        assertTrue(index.matches("GMS"));
+        assertTrue(index.matches("Nikita"));
+        assertFalse(index.matches("GMS Live Band"));
+        assertFalse(index.matches("Nikita Dragun"));
+        assertFalse(index.matches("Programs"));
+    }
+
+    @Test
+    public void ampersandReadsAsAnd() throws IOException {
+        SpiritualArtistIndex index = load("for king and country\n");
+        assertTrue(index.matches("for KING & COUNTRY"));
+    }
+
+    @Test
+    public void emptyIndexMatchesNothing() throws IOException {
+        assertFalse(load("").matches("Hillsong"));
+        assertFalse(load("hillsong").matches(null));
+    }
+
+    // A fresh copy per lookup, as the same track arrives in a later response
+    private static Song track() {
+        return new Song(4242L, "Morning Light", "Zephyr Collective", "Album", null, 200, "");
+    }
+
+    @Test
+    public void settingSourceDropsCachedClassifications() {
+        SpiritualSongFilter.clearClassificationCache();
+        try {
+            // Classified before any dictionary is installed: no artist match
+            assertFalse(SpiritualSongFilter.classify(track()).isSpiritual());
+
+            SpiritualArtistIndex.setSource(() -> new StringReader("zephyr collective\n"));
+            assertTrue(SpiritualSongFilter.classify(track()).isSpiritual());
+        } finally {
+            SpiritualArtistIndex.setSource(null);
+        }
+        assertFalse(SpiritualSongFilter.classify(track()).isSpiritual());
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.worshipsound.utils;
+
+import com.example.worshipsound.models.Song;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for SpiritualSongFilter.classifyBatch, checked against per-song classify()
+ */
+public class SpiritualBatchClassificationTest {
+
+    private static final String[] TITLES = {
+            "Amazing Grace", "Party All Night", "Worship Medley", "Summer Road",
+            "Holy Spirit Come", "Dance Floor", "Praise You Lord", "Road Trip"
+    };
+
+    @Before
+    public void setUp() {
+        SpiritualSongFilter.clearClassificationCache();
+    }
+
+    private static List<Song> songs(int count) {
+        List<Song> songs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Every fifth song by a known worship artist, the rest decided by title
+            songs.add(new Song(1_000_000L + i, TITLES[i % TITLES.length] + " " + i,
+                    i % 5 == 0 ? "Hillsong Worship" : "Some Band", "Album", null, 200, ""));
+        }
+        return songs;
+    }
+
+    private static void assertMatchesClassify(List<Song> songs, SpiritualBatchResult result) {
+        assertEquals(songs.size(), result.size());
+        for (int i = 0; i < songs.size(); i++) {
+            Song original = songs.get(i);
+            if (original == null) {
+                assertFalse("position " + i, result.isAccepted(i));
+                assertEquals("position " + i, 0, result.getScore(i));
+                continue;
+            }
+            Song copy = new Song(0, original.getTitle(), original.getArtistName(), original.getAlbumTitle(),
+                    null, 200, "");
+            SpiritualClassification expected = SpiritualSongFilter.classify(copy);
+            assertEquals("position " + i, expected.isSpiritual(), result.isAccepted(i));
+            assertEquals("position " + i, expected.getScore(), result.getScore(i));
+        }
+    }
+
+    @Test
+    public void alignsBitsAcrossWordBoundaries() {
+        for (int size : new int[]{1, 63, 64, 65, 127, 128, 129, 200}) {
+            List<Song> songs = songs(size);
+            SpiritualBatchResult result = SpiritualSongFilter.classifyBatch(songs);
+            assertMatchesClassify(songs, result);
+            // No bit beyond the batch is set
+            assertTrue(result.getAccepted().length() <= size);
+        }
+    }
+
+    @Test
+    public void emptyAndNullBatches() {
+        SpiritualBatchResult empty = SpiritualSongFilter.classifyBatch(Collections.<Song>emptyList());
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.getAcceptedCount());
+
+        SpiritualBatchResult none = SpiritualSongFilter.classifyBatch((List<Song>) null);
+        assertEquals(0, none.size());
+
+        // Results never share state: changing one caller's copy leaves the others alone
+        empty.getAccepted().set(3);
+        assertEquals(0, none.getAcceptedCount());
+        assertEquals(0, SpiritualSongFilter.classifyBatch(Collections.<Song>emptyList()).getAcceptedCount());
+    }
+
+    @Test
+    public void skipsNullSongs() {
+        List<Song> songs = songs(130);
+        songs.set(0, null);
+        songs.set(64, null);
+        songs.set(129, null);
+
+        assertMatchesClassify(songs, SpiritualSongFilter.classifyBatch(songs));
+    }
+
+    @Test
+    public void parallelSplitMatchesSequential() {
+        int threshold = SpiritualSongFilter.PARALLEL_BATCH_THRESHOLD;
+        for (int size : new int[]{threshold - 1, threshold, threshold + 65, 5000}) {
+            List<Song> songs = songs(size);
+            SpiritualBatchResult result = SpiritualSongFilter.classifyBatch(songs);
+            assertTrue(result.getAcceptedCount() > 0);
+            assertTrue(result.getAcceptedCount() < size);
+            assertMatchesClassify(songs, result);
+        }
+    }
+
+    @Test
+    public void acceptsSequentialLists() {
+        List<Song> songs = new LinkedList<>(songs(300));
+        assertMatchesClassify(new ArrayList<>(songs), SpiritualSongFilter.classifyBatch(songs));
+    }
+
+    @Test
+    public void accessorsReturnCopies() {
+        SpiritualBatchResult result = SpiritualSongFilter.classifyBatch(songs(70));
+        int accepted = result.getAcceptedCount();
+        int firstScore = result.getScore(0);
+
+        BitSet bits = result.getAccepted();
+        bits.clear();
+        result.getScores()[0] = -1;
+
+        assertEquals(accepted, result.getAcceptedCount());
+        assertEquals(firstScore, result.getScore(0));
+    }
+}
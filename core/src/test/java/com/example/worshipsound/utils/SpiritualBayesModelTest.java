@@ -0,0 +1,58 @@
+package com.example.worshipsound.utils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the hashed-feature Naive Bayes model
+ */
+public class SpiritualBayesModelTest {
+    private static final int FEATURE_BITS = 10;
+
+    private static int bucketOf(String word, int field) {
+        int[] buckets = new int[1];
+        SpiritualBayesModel.featureBuckets(word, field, FEATURE_BITS, buckets);
+        return buckets[0];
+    }
+
+    private static SpiritualBayesModel modelWith(String word, int field, float weight) {
+        float[] weights = new float[1 << FEATURE_BITS];
+        weights[bucketOf(word, field)] = weight;
+        return new SpiritualBayesModel(FEATURE_BITS, -0.5f, 0f, weights);
+    }
+
+    @Test
+    public void scoresEveryWordOfAField() {
+        SpiritualBayesModel model = modelWith("hallelujah", SpiritualBayesModel.FIELD_TITLE, 2f);
+        assertEquals(4f, model.scoreField("Hallelujah, HALLELUJAH!", SpiritualBayesModel.FIELD_TITLE), 1e-6f);
+        assertEquals(0f, model.scoreField(null, SpiritualBayesModel.FIELD_TITLE), 0f);
+    }
+
+    @Test
+    public void featuresDependOnTheField() {
+        assertNotEquals(bucketOf("grace", SpiritualBayesModel.FIELD_TITLE),
+                bucketOf("grace", SpiritualBayesModel.FIELD_ALBUM));
+    }
+
+    @Test
+    public void binaryFormatRoundTrips() throws IOException {
+        SpiritualBayesModel model = modelWith("worship", SpiritualBayesModel.FIELD_ALBUM, 1.25f);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        model.write(out);
+
+        SpiritualBayesModel read = SpiritualBayesModel.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(model.getFingerprint(), read.getFingerprint());
+        assertEquals(-0.5f, read.getPriorLogOdds(), 0f);
+        assertEquals(1.25f, read.scoreField("Worship", SpiritualBayesModel.FIELD_ALBUM), 0f);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherData() throws IOException {
+        SpiritualBayesModel.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.worshipsound.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the Aho-Corasick keyword matcher
+ */
+public class SpiritualKeywordMatcherTest {
+    private final SpiritualKeywordMatcher matcher = new SpiritualKeywordMatcher(
+            new String[]{"god", "lord", "holy", "spirit", "spiritual", "praise"},
+            new String[]{"praise", "devotion"}
+    );
+
+    @Test
+    public void countsDistinctKeywordsIgnoringCase() {
+        SpiritualKeywordMatcher.Result result = matcher.scan("HOLY Holy holy Lord God Almighty");
+        assertEquals(3, result.keywordCount);
+        assertTrue(result.hasKeyword());
+        assertFalse(result.hasAlbum());
+    }
+
+    @Test
+    public void findsOverlappingPatterns() {
+        // "spiritual" contains "spirit"; both must be reported like String.contains would
+        assertEquals(2, matcher.scan("Spiritual Songs").keywordCount);
+    }
+
+    @Test
+    public void sharedWordsCountInEveryTable() {
+        SpiritualKeywordMatcher.Result result = matcher.scan("Praise and Devotion");
+        assertEquals(1, result.keywordCount);
+        assertEquals(2, result.albumCount);
+    }
+
+    @Test
+    public void emptyAndNullTextMatchNothing() {
+        assertFalse(matcher.scan(null).hasKeyword());
+        assertFalse(matcher.scan("").hasKeyword());
+        assertFalse(matcher.scan("Bohemian Rhapsody").hasKeyword());
+    }
+}
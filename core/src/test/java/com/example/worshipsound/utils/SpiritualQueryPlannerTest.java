@@ -0,0 +1,89 @@
+package com.example.worshipsound.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for yield-based query planning
+ */
+public class SpiritualQueryPlannerTest {
+    private final Map<String, long[]> stored = new HashMap<>();
+    private SpiritualQueryPlanner planner;
+
+    @Before
+    public void setUp() {
+        planner = SpiritualQueryPlanner.getInstance();
+        planner.setStore(new SpiritualQueryPlanner.Store() {
+            @Override
+            public long[] read(String key) {
+                return stored.get(key);
+            }
+
+            @Override
+            public void write(String key, long totalFound, long filtered) {
+                stored.put(key, new long[]{totalFound, filtered});
+            }
+        });
+    }
+
+    @Test
+    public void untriedGroupUsesFirstTemplate() {
+        SpiritualQueryPlanner.Plan plan = planner.plan(SpiritualQueryPlanner.Group.ENHANCE, "amazing");
+        assertEquals("amazing worship christian gospel spiritual", plan.getQuery());
+    }
+
+    @Test
+    public void prefersBestObservedYield() {
+        SpiritualQueryPlanner.Group group = SpiritualQueryPlanner.Group.FALLBACK;
+        for (String template : group.getTemplates()) {
+            planner.recordYield(planner.forTemplate(group, template, "x"), 30, 3);
+        }
+        planner.recordYield(planner.forTemplate(group, "{q} hymn", "x"), 30, 27);
+
+        assertEquals("grace hymn", planner.plan(group, "grace").getQuery());
+        assertNotEquals("{q} hymn", planner.plan(group, "grace", "{q} hymn").getTemplate());
+
+        List<SpiritualQueryPlanner.Plan> all = planner.planAll(group, "grace");
+        assertEquals(group.getTemplates().length, all.size());
+        assertEquals("grace hymn", all.get(0).getQuery());
+        assertEquals("gospel grace", all.get(1).getQuery());
+    }
+
+    @Test
+    public void yieldsSurviveThroughStore() {
+        SpiritualQueryPlanner.Group group = SpiritualQueryPlanner.Group.TRENDING;
+        planner.recordYield(planner.forTemplate(group, "gospel worship", null), 50, 0);
+        double yield = planner.getYield(group, "gospel worship");
+
+        setUp();
+        assertEquals(yield, planner.getYield(group, "gospel worship"), 1e-9);
+        assertTrue(yield < planner.getYield(group, "christian praise"));
+    }
+
+    @Test
+    public void pageSizeFollowsYield() {
+        SpiritualQueryPlanner.Plan plan = planner.plan(SpiritualQueryPlanner.Group.ENHANCE, "amazing");
+        // Untried: prior yield of one half
+        assertEquals(50, planner.pageSize(plan, 25));
+
+        planner.recordYield(plan, 1000, 50);
+        assertEquals(SpiritualQueryPlanner.MAX_PAGE_SIZE, planner.pageSize(plan, 25));
+
+        SpiritualQueryPlanner.Plan direct = SpiritualQueryPlanner.Plan.untracked("hillsong");
+        planner.recordYield(direct, 100, 98);
+        assertEquals(28, planner.pageSize(direct, 25));
+        assertEquals(SpiritualQueryPlanner.MIN_PAGE_SIZE, planner.pageSize(direct, 5));
+    }
+
+    @Test
+    public void untrackedPlansAreNotRecorded() {
+        planner.recordYield(SpiritualQueryPlanner.Plan.untracked("worship"), 50, 50);
+        assertTrue(stored.isEmpty());
+    }
+}
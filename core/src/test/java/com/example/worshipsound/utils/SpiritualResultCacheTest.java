@@ -0,0 +1,69 @@
+package com.example.worshipsound.utils;
+
+import com.example.worshipsound.models.Song;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the TTL/LRU result cache
+ */
+public class SpiritualResultCacheTest {
+    private long now = 0;
+
+    private SpiritualResultCache cache(int maxEntries, long ttlMillis) {
+        return new SpiritualResultCache(maxEntries, ttlMillis, () -> now);
+    }
+
+    private static Song song() {
+        return new Song(1, "Holy", "Band", "Album", null, 200, "");
+    }
+
+    @Test
+    public void normalizesKeys() {
+        assertEquals(SpiritualResultCache.key("search", "  Way   Maker ", 50, 0),
+                SpiritualResultCache.key("search", "way maker", 50, 0));
+        assertNotEquals(SpiritualResultCache.key("search", "way maker", 50, 0),
+                SpiritualResultCache.key("search", "way maker", 50, 50));
+    }
+
+    @Test
+    public void expiresAfterTtl() {
+        SpiritualResultCache cache = cache(4, 1000);
+        cache.put("a", Collections.singletonList(song()), 50);
+
+        now = 999;
+        SpiritualResultCache.Entry entry = cache.get("a");
+        assertEquals(1, entry.getSongs().size());
+        assertEquals(50, entry.getTotalFound());
+
+        now = 1000;
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void cachesEmptyResults() {
+        SpiritualResultCache cache = cache(4, 1000);
+        cache.put("none", null, 0);
+        assertTrue(cache.get("none").isEmpty());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        SpiritualResultCache cache = cache(2, 1000);
+        cache.put("a", null, 0);
+        cache.put("b", null, 0);
+        cache.get("a");
+        cache.put("c", null, 0);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.worshipsound.utils;
+
+import com.example.worshipsound.models.Song;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for top-K ranking of filtered songs
+ */
+public class SpiritualSongRankerTest {
+
+    private static Song song(long id, String title, String artist, String preview) {
+        return new Song(id, title, artist, "Album", preview, 200, "");
+    }
+
+    @Test
+    public void ranksByCombinedScoreAndKeepsTopK() {
+        Song plain = song(1, "Worship", "Band", null);
+        Song withPreview = song(2, "Worship Song", "Band", "http://p/2.mp3");
+        Song liked = song(3, "Worship Night", "Favourite Artist", null);
+
+        List<Song> ranked = SpiritualSongRanker.createDefault(
+                Collections.singletonMap("favourite artist", 10)).rank(Arrays.asList(plain, withPreview, liked), 2);
+
+        assertEquals(Arrays.asList(liked, withPreview), ranked);
+    }
+
+    @Test
+    public void penalizesLaterDuplicates() {
+        Song first = song(1, "Holy", "Band", "http://p/1.mp3");
+        Song sameId = song(1, "Holy", "Band", "http://p/1.mp3");
+        Song sameName = song(9, "HOLY", "band", "http://p/9.mp3");
+        Song other = song(2, "Other", "Band", "http://p/2.mp3");
+
+        List<Song> ranked = new SpiritualSongRanker()
+                .addScorer(SpiritualSongRanker.duplicatePenalty(), 1.0)
+                .rank(Arrays.asList(first, sameId, sameName, other), 4);
+
+        assertEquals(Arrays.asList(first, other, sameId, sameName), ranked);
+    }
+
+    @Test
+    public void matchesFullSortWithStableTies() {
+        Random random = new Random(7);
+        List<Song> songs = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            songs.add(song(i, "t" + i, "a", null));
+        }
+        double[] scores = new double[songs.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = random.nextInt(20);
+        }
+        SpiritualSongRanker ranker = new SpiritualSongRanker()
+                .addScorer(song -> scores[(int) song.getId()], 1.0);
+
+        List<Song> expected = new ArrayList<>(songs);
+        expected.sort((a, b) -> Double.compare(scores[(int) b.getId()], scores[(int) a.getId()]));
+
+        assertEquals(expected.subList(0, 50), ranker.rank(songs, 50));
+        assertEquals(expected, ranker.rank(songs, 1000));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.worshipsound.utils;
+
+import com.example.worshipsound.models.Song;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for near-duplicate collapsing
+ */
+public class TrackVariantCollapserTest {
+
+    private static Song song(long id, String title, String artist, String preview) {
+        return new Song(id, title, artist, "Album", preview, 200, "");
+    }
+
+    @Test
+    public void stripsVersionNotes() {
+        assertEquals("oceans where feet may fail", TrackVariantCollapser.normalizeTitle("oceans (where feet may fail) - live"));
+        assertEquals("oceans where feet may fail", TrackVariantCollapser.normalizeTitle("oceans (where feet may fail)"));
+        assertEquals("amazing grace", TrackVariantCollapser.normalizeTitle("amazing grace - remastered 2011"));
+        assertEquals("amazing grace", TrackVariantCollapser.normalizeTitle("amazing grace [karaoke version]"));
+        assertEquals("way maker", TrackVariantCollapser.normalizeTitle("way maker feat. someone"));
+        assertEquals("live", TrackVariantCollapser.normalizeTitle("(live)"));
+        assertEquals("hillsong young free", TrackVariantCollapser.normalizeArtist("Hillsong Young & Free feat. X"));
+    }
+
+    @Test
+    public void stripsLeadingWithAndFromNotes() {
+        assertEquals("goodness of god", TrackVariantCollapser.normalizeTitle("goodness of god (from the chosen)"));
+        assertEquals("way maker", TrackVariantCollapser.normalizeTitle("way maker - with michael w. smith"));
+        assertEquals("oceans", TrackVariantCollapser.normalizeTitle("oceans (remix)"));
+        assertEquals("oceans", TrackVariantCollapser.normalizeTitle("oceans - remix 2020"));
+    }
+
+    @Test
+    public void keepsWithAndFromThatArePartOfTheTitle() {
+        assertEquals("be with me", TrackVariantCollapser.normalizeTitle("be with me"));
+        assertEquals("i will follow with you", TrackVariantCollapser.normalizeTitle("i will follow (with you)"));
+        assertEquals("hosanna be with me", TrackVariantCollapser.normalizeTitle("hosanna - be with me"));
+        assertEquals("grace love from above", TrackVariantCollapser.normalizeTitle("grace (love from above)"));
+        assertEquals("rain from above", TrackVariantCollapser.normalizeTitle("rain - from above"));
+        assertEquals("letters from home", TrackVariantCollapser.normalizeTitle("letters from home"));
+    }
+
+    @Test
+    public void keepsDistinctSongsWithWithInTheTitle() {
+        Song be = song(1, "Be", "Praise Team", null);
+        Song beWithMe = song(2, "Be (With Me)", "Praise Team", null);
+        Song withYou = song(3, "Be - With You", "Praise Team", null);
+        assertEquals(3, TrackVariantCollapser.collapse(Arrays.asList(be, beWithMe, withYou)).size());
+    }
+
+    @Test
+    public void keepsBestCopyAtFirstPosition() {
+        Song live = song(1, "Goodness of God (Live)", "Bethel Music", "http://p/1.mp3");
+        Song other = song(2, "Raise a Hallelujah", "Bethel Music", "http://p/2.mp3");
+        Song studio = song(3, "Goodness Of God", "Bethel Music, Jenn Johnson", "http://p/3.mp3");
+        Song karaoke = song(4, "Goodness of God - Karaoke Version", "Bethel Music", null);
+
+        List<Song> collapsed = TrackVariantCollapser.collapse(Arrays.asList(live, other, studio, karaoke));
+
+        assertEquals(Arrays.asList(studio, other), collapsed);
+    }
+
+    @Test
+    public void keepsDifferentArtistsApart() {
+        Song a = song(1, "Holy", "Artist A", null);
+        Song b = song(2, "Holy", "Artist B", null);
+        assertEquals(2, TrackVariantCollapser.collapse(Arrays.asList(a, b)).size());
+    }
+}
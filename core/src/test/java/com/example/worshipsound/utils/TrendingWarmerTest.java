@@ -0,0 +1,40 @@
+package com.example.worshipsound.utils;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for reading warmed trending snapshots; the warm-up itself runs in
+ * the app's TrendingSearchFetcherTest with the fetcher the job uses
+ */
+public class TrendingWarmerTest {
+
+    private final Map<String, TrendingWarmer.Snapshot> snapshots = new HashMap<>();
+    private final TrendingWarmer.Store store = new TrendingWarmer.Store() {
+        @Override
+        public TrendingWarmer.Snapshot read(String query) {
+            return snapshots.get(query);
+        }
+
+        @Override
+        public void write(String query, TrendingWarmer.Snapshot snapshot) {
+            snapshots.put(query, snapshot);
+        }
+    };
+
+    @Test
+    public void readsOnlyFreshSnapshots() {
+        long hour = 60 * 60 * 1000L;
+        snapshots.put("gospel worship", new TrendingWarmer.Snapshot(Collections.emptyList(), 0, 10 * hour));
+
+        assertNotNull(TrendingWarmer.readFresh(store, "gospel worship", 24 * hour, 30 * hour));
+        assertNull(TrendingWarmer.readFresh(store, "gospel worship", 24 * hour, 40 * hour));
+        assertNull(TrendingWarmer.readFresh(store, "gospel worship", 24 * hour, 5 * hour));
+        assertNull(TrendingWarmer.readFresh(store, "christian praise", 24 * hour, 30 * hour));
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.worshipsound.training;
+
+import com.example.worshipsound.utils.SpiritualBayesModel;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offline trainer for SpiritualBayesModel.
+ * Reads a labeled CSV (label,title,artist,album; label is 1 for spiritual,
+ * 0 for secular) and writes the binary weights asset.
+ *
+ * Usage: SpiritualBayesTrainer <labels.csv> <output.bin> [featureBits]
+ */
+public final class SpiritualBayesTrainer {
+    private static final int DEFAULT_FEATURE_BITS = 14;
+    // Laplace smoothing per bucket
+    private static final double SMOOTHING = 1.0;
+
+    private SpiritualBayesTrainer() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: SpiritualBayesTrainer <labels.csv> <output.bin> [featureBits]");
+            System.exit(2);
+        }
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        int featureBits = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_FEATURE_BITS;
+
+        List<String[]> rows = readCsv(input);
+        SpiritualBayesModel model = train(rows, featureBits);
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        try (OutputStream out = new FileOutputStream(output.toFile())) {
+            model.write(out);
+        }
+        System.out.println("Trained on " + rows.size() + " songs, wrote " + output);
+    }
+
+    /**
+     * Train a multinomial Naive Bayes model
+     * @param rows Rows of label, title, artist, album
+     * @param featureBits Model size (2^featureBits buckets)
+     * @return Trained model with a decision threshold of 0 log-odds
+     */
+    public static SpiritualBayesModel train(List<String[]> rows, int featureBits) {
+        int buckets = 1 << featureBits;
+        long[] spiritualCounts = new long[buckets];
+        long[] secularCounts = new long[buckets];
+        long spiritualTotal = 0;
+        long secularTotal = 0;
+        int spiritualSongs = 0;
+        int secularSongs = 0;
+        int[] features = new int[256];
+
+        for (String[] row : rows) {
+            boolean spiritual = isSpiritualLabel(row[0]);
+            if (spiritual) spiritualSongs++; else secularSongs++;
+
+            for (int field = SpiritualBayesModel.FIELD_TITLE; field <= SpiritualBayesModel.FIELD_ALBUM; field++) {
+                String text = field + 1 < row.length ? row[field + 1] : null;
+                if (text != null && text.length() > features.length) {
+                    features = new int[text.length()];
+                }
+                int count = SpiritualBayesModel.featureBuckets(text, field, featureBits, features);
+                for (int i = 0; i < count; i++) {
+                    if (spiritual) {
+                        spiritualCounts[features[i]]++;
+                        spiritualTotal++;
+                    } else {
+                        secularCounts[features[i]]++;
+                        secularTotal++;
+                    }
+                }
+            }
+        }
+
+        if (spiritualSongs == 0 || secularSongs == 0) {
+            throw new IllegalArgumentException("Training data needs both spiritual and secular songs");
+        }
+
+        double spiritualDenominator = spiritualTotal + SMOOTHING * buckets;
+        double secularDenominator = secularTotal + SMOOTHING * buckets;
+        float[] weights = new float[buckets];
+        for (int b = 0; b < buckets; b++) {
+            double spiritual = Math.log((spiritualCounts[b] + SMOOTHING) / spiritualDenominator);
+            double secular = Math.log((secularCounts[b] + SMOOTHING) / secularDenominator);
+            weights[b] = (float) (spiritual - secular);
+        }
+
+        float prior = (float) Math.log((double) spiritualSongs / secularSongs);
+        return new SpiritualBayesModel(featureBits, prior, 0f, weights);
+    }
+
+    private static boolean isSpiritualLabel(String label) {
+        String value = label.trim();
+        return value.equals("1") || value.equalsIgnoreCase("spiritual");
+    }
+
+    /**
+     * Read CSV rows, skipping the header, blank lines and '#' comments.
+     * Fields may be quoted with "" to escape quotes.
+     */
+    static List<String[]> readCsv(Path path) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            boolean header = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                rows.add(parseCsvLine(line));
+            }
+        }
+        return rows;
+    }
+
+    private static String[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields.toArray(new String[0]);
+    }
+}